@@ -0,0 +1,64 @@
+package com.farhan.cloudtransaction.benchmark;
+
+import com.farhan.cloudtransaction.benchmark.support.Fixtures;
+import com.farhan.cloudtransaction.dto.ApiResponse;
+import com.farhan.cloudtransaction.dto.PagedResult;
+import com.farhan.cloudtransaction.dto.TransactionDTO;
+import com.farhan.cloudtransaction.entity.Transaction;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of a page of transactions, as done for
+ * GET /api/transactions/client/{clientId}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pageSize;
+
+    private PagedResult<Transaction> page;
+    private PagedResult<TransactionDTO> mappedPage;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            transactions.add(Fixtures.transaction(i, 1));
+        }
+        page = new PagedResult<>(transactions, "eyJjbGllbnRJZCI6IlM6Y2xpZW50LTAifQ");
+        mappedPage = page.map(TransactionDTO::new);
+        // Same defaults Spring Boot applies to the ObjectMapper used by the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public PagedResult<TransactionDTO> mapToDto() {
+        return page.map(TransactionDTO::new);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("Transactions retrieved successfully", mappedPage));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                ApiResponse.success("Transactions retrieved successfully", page.map(TransactionDTO::new)));
+    }
+}
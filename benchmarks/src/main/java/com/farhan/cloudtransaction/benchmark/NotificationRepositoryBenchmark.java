@@ -0,0 +1,57 @@
+package com.farhan.cloudtransaction.benchmark;
+
+import com.farhan.cloudtransaction.benchmark.support.Fixtures;
+import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.repo.NotificationRepository;
+import com.farhan.cloudtransaction.service.UploadTokenSigner;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload token lookups against the in-memory DynamoDB stand-in, and the signature check that
+ * turns away forged upload links before they reach DynamoDB.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationRepositoryBenchmark {
+
+    private static final int NOTIFICATIONS = 10_000;
+
+    private NotificationRepository notificationRepository;
+    private UploadTokenSigner uploadTokenSigner;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 7919) % NOTIFICATIONS;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        notificationRepository = new NotificationRepository(Fixtures.dynamoDb(), Fixtures.parallelScanner());
+        uploadTokenSigner = Fixtures.uploadTokenSigner();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            notificationRepository.saveNotification(Fixtures.notification(i));
+        }
+    }
+
+    @Benchmark
+    public Notification getNotificationByUploadToken(Cursor cursor) {
+        return notificationRepository.getNotificationByUploadToken("token-" + cursor.next());
+    }
+
+    @Benchmark
+    public boolean rejectForgedUploadToken(Cursor cursor) {
+        return uploadTokenSigner.isAuthentic("00000000-0000-0000-0000-" + cursor.next() + ".forged-signature");
+    }
+}
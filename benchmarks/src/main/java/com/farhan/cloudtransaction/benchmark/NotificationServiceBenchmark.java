@@ -0,0 +1,73 @@
+package com.farhan.cloudtransaction.benchmark;
+
+import com.farhan.cloudtransaction.benchmark.support.Fields;
+import com.farhan.cloudtransaction.benchmark.support.Fixtures;
+import com.farhan.cloudtransaction.benchmark.support.InMemoryDynamoDbClient;
+import com.farhan.cloudtransaction.benchmark.support.InMemorySesClient;
+import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.repo.NotificationRepository;
+import com.farhan.cloudtransaction.repo.OutboxRepository;
+import com.farhan.cloudtransaction.service.EmailOutboxService;
+import com.farhan.cloudtransaction.service.NotificationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending a client notification: the notification and its outbox email are written to the
+ * DynamoDB stand-in and handed to the outbox workers, which deliver to the SES stand-in in
+ * the background. The measured call returns once the email is queued, as in the API.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationServiceBenchmark {
+
+    private NotificationService notificationService;
+    private EmailOutboxService emailOutboxService;
+    private long sequence;
+
+    // Fresh tables every iteration so the stand-in doesn't grow without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryDynamoDbClient dynamoDb = Fixtures.dynamoDb();
+
+        emailOutboxService = new EmailOutboxService(new InMemorySesClient(), new OutboxRepository(dynamoDb),
+                new SimpleMeterRegistry());
+        Fields.set(emailOutboxService, "senderEmail", "noreply@example.com");
+        Fields.set(emailOutboxService, "workers", 4);
+        Fields.set(emailOutboxService, "queueCapacity", 10_000);
+        Fields.set(emailOutboxService, "maxSendRate", 1_000_000.0);
+        Fields.set(emailOutboxService, "maxAttempts", 8);
+        Fields.set(emailOutboxService, "baseBackoffMs", 2000L);
+        Fields.set(emailOutboxService, "maxBackoffMs", 900_000L);
+        Fields.set(emailOutboxService, "leaseDuration", Duration.ofMinutes(2));
+        Fields.set(emailOutboxService, "batchSize", 100);
+        emailOutboxService.init();
+
+        notificationService = new NotificationService(emailOutboxService, new NotificationRepository(dynamoDb,
+                Fixtures.parallelScanner()), Fixtures.uploadTokenSigner());
+        Fields.set(notificationService, "baseUrl", "http://localhost:8080");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        emailOutboxService.shutdown();
+    }
+
+    @Benchmark
+    public Notification sendEmailNotification() {
+        long i = sequence++;
+        return notificationService.sendEmailNotification(
+                "client@example.com",
+                "txn-" + i,
+                "Document request",
+                "Please upload the receipt for your latest transaction.");
+    }
+}
@@ -0,0 +1,79 @@
+package com.farhan.cloudtransaction.benchmark;
+
+import com.farhan.cloudtransaction.benchmark.support.Fields;
+import com.farhan.cloudtransaction.benchmark.support.InMemoryMultipartFile;
+import com.farhan.cloudtransaction.benchmark.support.InMemoryS3Client;
+import com.farhan.cloudtransaction.service.S3Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3Service upload and download buffering at several file sizes. Files above the 8 MB
+ * multipart threshold go through the pooled part buffers; the S3 stand-in discards
+ * uploaded bytes, so the allocation rate reported by -prof gc is the service's own.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class S3TransferBenchmark {
+
+    private static final String KEY = "benchmark-object";
+    private static final long MULTIPART_THRESHOLD = 8L * 1024 * 1024;
+
+    @Param({"4096", "1048576", "16777216", "67108864"})
+    public int fileSize;
+
+    private S3Service s3Service;
+    private InMemoryMultipartFile file;
+
+    @Setup
+    public void setUp() {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+
+        InMemoryS3Client s3Client = new InMemoryS3Client();
+        s3Client.putObject(KEY, content);
+        file = new InMemoryMultipartFile("receipt.pdf", "application/pdf", content);
+
+        // No presigning is measured here, so no presigner is needed
+        s3Service = new S3Service(s3Client, null);
+        Fields.set(s3Service, "bucketName", "benchmark-bucket");
+        Fields.set(s3Service, "multipartThreshold", MULTIPART_THRESHOLD);
+        Fields.set(s3Service, "partSize", (int) MULTIPART_THRESHOLD);
+        Fields.set(s3Service, "maxPartBuffers", 8);
+        Fields.set(s3Service, "presignSafetyMargin", Duration.ofHours(1));
+        Fields.set(s3Service, "presignMaxReuse", Duration.ofHours(1));
+        Fields.set(s3Service, "presignCacheSize", 10_000L);
+        s3Service.init();
+    }
+
+    @Benchmark
+    public String upload() {
+        return s3Service.uploadFile(file);
+    }
+
+    @Benchmark
+    public long download() throws IOException {
+        // Mirrors the download endpoint, which copies the S3 stream straight to the response
+        try (InputStream in = s3Service.downloadFile(KEY, null, false).content()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public long downloadFirstMegabyte() throws IOException {
+        try (InputStream in = s3Service.downloadFile(KEY, "bytes=0-1048575", false).content()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
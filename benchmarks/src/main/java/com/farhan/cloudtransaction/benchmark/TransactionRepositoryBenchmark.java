@@ -0,0 +1,67 @@
+package com.farhan.cloudtransaction.benchmark;
+
+import com.farhan.cloudtransaction.benchmark.support.Fixtures;
+import com.farhan.cloudtransaction.benchmark.support.InMemoryDynamoDbClient;
+import com.farhan.cloudtransaction.dto.PagedResult;
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.ClientSummaryRepository;
+import com.farhan.cloudtransaction.repo.TransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction lookups against the in-memory DynamoDB stand-in, with and without the
+ * read-through cache. Covers request building, bean mapping and caching, not network time.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionRepositoryBenchmark {
+
+    private static final int TRANSACTIONS = 10_000;
+    private static final int CLIENTS = 100;
+
+    @Param({"true", "false"})
+    public boolean transactionCache;
+
+    private TransactionRepository transactionRepository;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        // Steps through the IDs in a scattered order so consecutive calls don't hit the same item
+        int next() {
+            next = (next + 7919) % TRANSACTIONS;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        InMemoryDynamoDbClient dynamoDb = Fixtures.dynamoDb();
+        transactionRepository = new TransactionRepository(dynamoDb, new ClientSummaryRepository(dynamoDb),
+                Fixtures.parallelScanner(), new SimpleMeterRegistry(),
+                transactionCache, TRANSACTIONS, Duration.ofMinutes(10));
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactionRepository.saveTransaction(Fixtures.transaction(i, CLIENTS));
+        }
+    }
+
+    @Benchmark
+    public Transaction getTransaction(Cursor cursor) {
+        return transactionRepository.getTransaction("txn-" + cursor.next());
+    }
+
+    @Benchmark
+    public PagedResult<Transaction> getTransactionsByClientId(Cursor cursor) {
+        return transactionRepository.getTransactionsByClientId("client-" + cursor.next() % CLIENTS, 50, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.farhan.cloudtransaction.benchmark.support;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets the {@code @Value} fields that Spring would normally inject, so services can be
+ * built by hand without starting an application context.
+ */
+public final class Fields {
+
+    private Fields() {
+    }
+
+    public static void set(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+    }
+}
@@ -0,0 +1,71 @@
+package com.farhan.cloudtransaction.benchmark.support;
+
+import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.entity.OutboxEmail;
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.ParallelScanner;
+import com.farhan.cloudtransaction.service.UploadTokenSigner;
+
+import java.time.LocalDateTime;
+
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Same tables and indexes as the repositories create on startup
+    public static InMemoryDynamoDbClient dynamoDb() {
+        return new InMemoryDynamoDbClient()
+                .table("Transactions", "transactionId")
+                .index("Transactions", Transaction.CLIENT_INDEX, "clientId", "createdAt")
+                .table("Notifications", "notificationId")
+                .index("Notifications", Notification.UPLOAD_TOKEN_INDEX, "uploadToken", null)
+                .index("Notifications", Notification.PENDING_INDEX, "pendingShard", "lastReminderAt")
+                .table("EmailOutbox", "emailId")
+                .index("EmailOutbox", OutboxEmail.PENDING_INDEX, "pendingShard", "nextAttemptAt")
+                .table("ClientSummaries", "clientId")
+                .table("Leases", "leaseName")
+                .table("Documents", "contentHash");
+    }
+
+    // Small pool with no capacity budget; the stand-in reports no consumed capacity anyway
+    public static ParallelScanner parallelScanner() {
+        return new ParallelScanner(4, 4, 500, 0);
+    }
+
+    // Fixture tokens are plain strings, so unsigned tokens stay accepted
+    public static UploadTokenSigner uploadTokenSigner() {
+        return new UploadTokenSigner("benchmark-upload-token-secret-0123456789", true);
+    }
+
+    public static Transaction transaction(int i, int clients) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("txn-" + i);
+        transaction.setClientId("client-" + (i % clients));
+        transaction.setClientEmail("client" + (i % clients) + "@example.com");
+        transaction.setDescription("Invoice " + i + " for quarterly bookkeeping services");
+        transaction.setIsCompleted(i % 3 == 0);
+        transaction.setFileKey(i % 3 == 0 ? "uploads/" + i + "-receipt.pdf" : null);
+        transaction.setNotificationId("notification-" + i);
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(createdAt.plusHours(1));
+        return transaction;
+    }
+
+    public static Notification notification(int i) {
+        Notification notification = new Notification();
+        notification.setNotificationId("notification-" + i);
+        notification.setTransactionId("txn-" + i);
+        notification.setRecipientEmail("client@example.com");
+        notification.setSubject("Document request");
+        notification.setMessage("Please upload the receipt for transaction txn-" + i);
+        notification.setSentAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+        notification.setUploadToken("token-" + i);
+        notification.setIsResolved(false);
+        notification.setPendingShard(Notification.pendingShard(notification.getNotificationId()));
+        notification.setReminderCount(0);
+        notification.setLastReminderAt(notification.getSentAt());
+        return notification;
+    }
+}
@@ -0,0 +1,211 @@
+package com.farhan.cloudtransaction.benchmark.support;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Map-backed stand-in for the DynamoDB operations the repositories use: GetItem, PutItem,
+ * and Query/Scan (including parallel scan segments) on a table or a global secondary index.
+ * Condition expressions are not evaluated, and key conditions are limited to partition key equality.
+ */
+public class InMemoryDynamoDbClient implements DynamoDbClient {
+
+    private static final Pattern KEY_EQUALS = Pattern.compile("^\\s*(#?[\\w.]+)\\s*=\\s*(:\\w+)\\s*$");
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    public InMemoryDynamoDbClient table(String tableName, String partitionKey) {
+        tables.put(tableName, new Table(partitionKey));
+        return this;
+    }
+
+    public InMemoryDynamoDbClient index(String tableName, String indexName, String partitionKey, String sortKey) {
+        table(tableName).indexes.put(indexName, new Index(partitionKey, sortKey));
+        return this;
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        Table table = table(request.tableName());
+        Map<String, AttributeValue> item = table.items.get(request.key().get(table.partitionKey));
+        return GetItemResponse.builder().item(item).build();
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        table(request.tableName()).put(new HashMap<>(request.item()));
+        return PutItemResponse.builder().build();
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        Table table = table(request.tableName());
+        Matcher matcher = KEY_EQUALS.matcher(request.keyConditionExpression());
+        if (!matcher.matches()) {
+            throw new UnsupportedOperationException("Only partition key equality is supported: " + request.keyConditionExpression());
+        }
+        String attribute = resolveName(matcher.group(1), request.expressionAttributeNames());
+        AttributeValue value = request.expressionAttributeValues().get(matcher.group(2));
+
+        List<Map<String, AttributeValue>> matches;
+        String sortKey = null;
+        synchronized (table) {
+            if (request.indexName() == null) {
+                Map<String, AttributeValue> item = table.items.get(value);
+                matches = item == null ? List.of() : List.of(item);
+            } else {
+                Index index = table.index(request.indexName());
+                if (!index.partitionKey.equals(attribute)) {
+                    throw new UnsupportedOperationException("Query must use the partition key of " + request.indexName());
+                }
+                matches = new ArrayList<>(index.partitions.getOrDefault(value, List.of()));
+                sortKey = index.sortKey;
+            }
+        }
+        if (sortKey != null) {
+            String key = sortKey;
+            Comparator<Map<String, AttributeValue>> order = Comparator.comparing(item -> sortValue(item.get(key)));
+            matches.sort(Boolean.FALSE.equals(request.scanIndexForward()) ? order.reversed() : order);
+        }
+        Page page = page(table, request.indexName(), matches, request.exclusiveStartKey(), request.limit());
+        return QueryResponse.builder()
+                .items(page.items)
+                .count(page.items.size())
+                .lastEvaluatedKey(page.lastEvaluatedKey)
+                .build();
+    }
+
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        Table table = table(request.tableName());
+        List<Map<String, AttributeValue>> items;
+        synchronized (table) {
+            items = request.indexName() == null
+                    ? new ArrayList<>(table.items.values())
+                    : table.index(request.indexName()).partitions.values().stream()
+                            .flatMap(List::stream)
+                            .toList();
+        }
+        if (request.totalSegments() != null) {
+            // Spread items over segments by partition key, as DynamoDB does, so parallel scans see each item once
+            items = items.stream()
+                    .filter(item -> Math.floorMod(item.get(table.partitionKey).hashCode(), request.totalSegments()) == request.segment())
+                    .toList();
+        }
+        Page page = page(table, request.indexName(), items, request.exclusiveStartKey(), request.limit());
+        return ScanResponse.builder()
+                .items(page.items)
+                .count(page.items.size())
+                .lastEvaluatedKey(page.lastEvaluatedKey)
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Table table(String tableName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            throw ResourceNotFoundException.builder().message("Table not found: " + tableName).build();
+        }
+        return table;
+    }
+
+    private static Page page(Table table, String indexName, List<Map<String, AttributeValue>> items,
+            Map<String, AttributeValue> exclusiveStartKey, Integer limit) {
+        int from = 0;
+        if (exclusiveStartKey != null && !exclusiveStartKey.isEmpty()) {
+            AttributeValue startAfter = exclusiveStartKey.get(table.partitionKey);
+            while (from < items.size() && !items.get(from).get(table.partitionKey).equals(startAfter)) {
+                from++;
+            }
+            from++;
+        }
+        int to = limit == null ? items.size() : Math.min(items.size(), from + limit);
+        if (from >= to) {
+            return new Page(List.of(), null);
+        }
+        List<Map<String, AttributeValue>> pageItems = items.subList(from, to);
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        if (to < items.size()) {
+            Map<String, AttributeValue> last = pageItems.get(pageItems.size() - 1);
+            lastEvaluatedKey = new HashMap<>();
+            lastEvaluatedKey.put(table.partitionKey, last.get(table.partitionKey));
+            if (indexName != null) {
+                Index index = table.index(indexName);
+                lastEvaluatedKey.put(index.partitionKey, last.get(index.partitionKey));
+                if (index.sortKey != null && last.get(index.sortKey) != null) {
+                    lastEvaluatedKey.put(index.sortKey, last.get(index.sortKey));
+                }
+            }
+        }
+        return new Page(List.copyOf(pageItems), lastEvaluatedKey);
+    }
+
+    private static String resolveName(String name, Map<String, String> names) {
+        return name.startsWith("#") ? names.get(name) : name;
+    }
+
+    private static String sortValue(AttributeValue value) {
+        if (value == null) {
+            return "";
+        }
+        return value.s() != null ? value.s() : String.valueOf(value.n());
+    }
+
+    private record Page(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+
+    private record Index(String partitionKey, String sortKey, Map<AttributeValue, List<Map<String, AttributeValue>>> partitions) {
+        Index(String partitionKey, String sortKey) {
+            this(partitionKey, sortKey, new HashMap<>());
+        }
+    }
+
+    private static final class Table {
+        private final String partitionKey;
+        private final Map<AttributeValue, Map<String, AttributeValue>> items = new ConcurrentHashMap<>();
+        private final Map<String, Index> indexes = new HashMap<>();
+
+        Table(String partitionKey) {
+            this.partitionKey = partitionKey;
+        }
+
+        Index index(String indexName) {
+            Index index = indexes.get(indexName);
+            if (index == null) {
+                throw DynamoDbException.builder().message("Index not found: " + indexName).build();
+            }
+            return index;
+        }
+
+        // Sparse indexes: items without the index partition key are left out, as in DynamoDB
+        synchronized void put(Map<String, AttributeValue> item) {
+            Map<String, AttributeValue> previous = items.put(item.get(partitionKey), item);
+            for (Index index : indexes.values()) {
+                if (previous != null && previous.get(index.partitionKey) != null) {
+                    index.partitions.get(previous.get(index.partitionKey)).remove(previous);
+                }
+                AttributeValue indexKey = item.get(index.partitionKey);
+                if (indexKey != null) {
+                    index.partitions.computeIfAbsent(indexKey, k -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.farhan.cloudtransaction.benchmark.support;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the S3 calls made by S3Service. Uploaded bodies are read to the end and
+ * discarded, so upload benchmarks measure the service's buffering rather than storage here.
+ * Downloads are served from objects seeded with {@link #putObject(String, byte[])}.
+ */
+public class InMemoryS3Client implements S3Client {
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public void putObject(String key, byte[] content) {
+        objects.put(key, content);
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody requestBody) {
+        drain(requestBody);
+        return PutObjectResponse.builder().eTag(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+        return CreateMultipartUploadResponse.builder()
+                .bucket(request.bucket())
+                .key(request.key())
+                .uploadId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody requestBody) {
+        drain(requestBody);
+        return UploadPartResponse.builder().eTag(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(GetObjectRequest request, ResponseTransformer<GetObjectResponse, ReturnT> responseTransformer) {
+        byte[] content = object(request.key());
+        int from = 0;
+        int to = content.length;
+        String contentRange = null;
+        if (request.range() != null) {
+            // Only "bytes=start-end" and "bytes=start-" are needed here
+            String[] bounds = request.range().substring("bytes=".length()).split("-", -1);
+            from = Integer.parseInt(bounds[0]);
+            to = bounds[1].isEmpty() ? content.length : Math.min(content.length, Integer.parseInt(bounds[1]) + 1);
+            contentRange = "bytes " + from + "-" + (to - 1) + "/" + content.length;
+        }
+
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentLength((long) (to - from))
+                .contentRange(contentRange)
+                .eTag("\"" + Integer.toHexString(System.identityHashCode(content)) + "\"")
+                .build();
+        try {
+            return responseTransformer.transform(response,
+                    AbortableInputStream.create(new ByteArrayInputStream(content, from, to - from)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to transform GetObject response", e);
+        }
+    }
+
+    @Override
+    public HeadObjectResponse headObject(HeadObjectRequest request) {
+        byte[] content = object(request.key());
+        return HeadObjectResponse.builder()
+                .contentLength((long) content.length)
+                .eTag("\"" + Integer.toHexString(System.identityHashCode(content)) + "\"")
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private byte[] object(String key) {
+        byte[] content = objects.get(key);
+        if (content == null) {
+            throw NoSuchKeyException.builder().message("No such key: " + key).build();
+        }
+        return content;
+    }
+
+    private void drain(RequestBody requestBody) {
+        try (InputStream in = requestBody.contentStreamProvider().newStream()) {
+            bytesReceived.addAndGet(in.transferTo(OutputStream.nullOutputStream()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
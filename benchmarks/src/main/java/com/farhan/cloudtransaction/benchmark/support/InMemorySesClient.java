@@ -0,0 +1,35 @@
+package com.farhan.cloudtransaction.benchmark.support;
+
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for SES that accepts every email immediately and only counts them.
+ */
+public class InMemorySesClient implements SesClient {
+
+    private final AtomicLong sent = new AtomicLong();
+
+    public long sent() {
+        return sent.get();
+    }
+
+    @Override
+    public SendEmailResponse sendEmail(SendEmailRequest request) {
+        sent.incrementAndGet();
+        return SendEmailResponse.builder().messageId(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,113 @@
+package com.farhan.cloudtransaction.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.ses.SesClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens pooled connections to DynamoDB, S3 and SES before the application reports ready,
+ * so the first requests after a deploy don't each pay for DNS, TCP and TLS setup.
+ * Runs after the context starts and before readiness, bounded by a timeout.
+ */
+@Component
+public class AwsConnectionWarmer {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final S3Client s3Client;
+    private final SesClient sesClient;
+    private final ExecutorService serviceExecutor;
+    private static final Logger logger = LoggerFactory.getLogger(AwsConnectionWarmer.class);
+
+    @Value("${aws.http.warmup.enabled:true}")
+    private boolean enabled;
+
+    // Concurrent calls per service; each one leaves an open connection in the pool
+    @Value("${aws.http.warmup.connections:4}")
+    private int connections;
+
+    @Value("${aws.http.warmup.timeout:PT3S}")
+    private Duration timeout;
+
+    @Value("${aws.s3.bucketName}")
+    private String bucketName;
+
+    public AwsConnectionWarmer(DynamoDbClient dynamoDbClient, DynamoDbAsyncClient dynamoDbAsyncClient,
+            S3Client s3Client, SesClient sesClient, ExecutorService serviceExecutor) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.s3Client = s3Client;
+        this.sesClient = sesClient;
+        this.serviceExecutor = serviceExecutor;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        if (!enabled || connections < 1) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(warm("DynamoDB", () -> dynamoDbClient.describeTable(r -> r.tableName("Transactions"))));
+            calls.add(warm("S3", () -> s3Client.headBucket(r -> r.bucket(bucketName))));
+            calls.add(warm("SES", () -> sesClient.getSendQuota()));
+            calls.add(dynamoDbAsyncClient.describeTable(r -> r.tableName("Transactions"))
+                    .handle((response, e) -> {
+                        logFailure("DynamoDB (async)", e);
+                        return null;
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            logger.info("Warmed AWS connections in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (TimeoutException e) {
+            logger.warn("AWS connection warm-up did not finish within {}; continuing startup", timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("AWS connection warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> warm(String service, Runnable call) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                call.run();
+            } catch (RuntimeException e) {
+                logFailure(service, e);
+            }
+        }, serviceExecutor);
+    }
+
+    private static void logFailure(String service, Throwable e) {
+        if (e == null) {
+            return;
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        // An error response (e.g. access denied) still went over a connection that is now pooled
+        if (cause instanceof SdkServiceException) {
+            logger.debug("{} warm-up call returned an error: {}", service, cause.getMessage());
+        } else {
+            logger.warn("{} warm-up call failed: {}", service, cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.farhan.cloudtransaction.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+
+import java.time.Duration;
+
+/**
+ * One connection pool for all blocking AWS clients and one for the async ones, instead of a
+ * default-sized pool per client. Shared HTTP clients are not closed by the SDK clients that
+ * use them, so Spring closes them on shutdown.
+ */
+@Configuration
+public class AwsHttpConfig {
+
+    @Value("${aws.http.maxConnections:200}")
+    private int maxConnections;
+
+    @Value("${aws.http.connectionAcquisitionTimeout:PT2S}")
+    private Duration connectionAcquisitionTimeout;
+
+    @Value("${aws.http.connectionTimeout:PT2S}")
+    private Duration connectionTimeout;
+
+    @Value("${aws.http.socketTimeout:PT30S}")
+    private Duration socketTimeout;
+
+    @Value("${aws.http.connectionMaxIdleTime:PT60S}")
+    private Duration connectionMaxIdleTime;
+
+    // Recycle connections periodically so DNS changes on the AWS side are picked up
+    @Value("${aws.http.connectionTimeToLive:PT5M}")
+    private Duration connectionTimeToLive;
+
+    @Value("${aws.http.tcpKeepAlive:true}")
+    private boolean tcpKeepAlive;
+
+    @Bean(destroyMethod = "close")
+    public SdkHttpClient awsHttpClient() {
+        return ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                .connectionTimeout(connectionTimeout)
+                .socketTimeout(socketTimeout)
+                .connectionMaxIdleTime(connectionMaxIdleTime)
+                .connectionTimeToLive(connectionTimeToLive)
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(tcpKeepAlive)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public SdkAsyncHttpClient awsAsyncHttpClient() {
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConnections)
+                .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                .connectionTimeout(connectionTimeout)
+                .readTimeout(socketTimeout)
+                .writeTimeout(socketTimeout)
+                .connectionMaxIdleTime(connectionMaxIdleTime)
+                .connectionTimeToLive(connectionTimeToLive)
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(tcpKeepAlive)
+                .build();
+    }
+}
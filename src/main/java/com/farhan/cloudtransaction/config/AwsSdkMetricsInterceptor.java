@@ -0,0 +1,126 @@
+package com.farhan.cloudtransaction.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpHeaders;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-operation metrics for every AWS SDK call, tagged by service and operation:
+ * <ul>
+ * <li>{@code aws.sdk.requests} - latency of the whole call including retries, by outcome</li>
+ * <li>{@code aws.sdk.retries} - attempts after the first</li>
+ * <li>{@code aws.sdk.throttles} - attempts rejected by throttling</li>
+ * <li>{@code aws.sdk.bytes} - request and response body sizes, by direction</li>
+ * </ul>
+ */
+@Component
+public class AwsSdkMetricsInterceptor implements ExecutionInterceptor {
+
+    // Attribute names must be unique per JVM, and devtools restarts load this class again
+    private static final ExecutionAttribute<Call> CALL = new ExecutionAttribute<>(
+            "AwsSdkMetrics@" + Integer.toHexString(System.identityHashCode(AwsSdkMetricsInterceptor.class)));
+
+    private static final class Call {
+        private final long startNanos = System.nanoTime();
+        private int attempts;
+        private boolean lastAttemptThrottled;
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public AwsSdkMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(CALL, new Call());
+    }
+
+    // Called once per attempt, so anything past the first is a retry
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        Call call = executionAttributes.getAttribute(CALL);
+        call.attempts++;
+        call.lastAttemptThrottled = false;
+        if (call.attempts > 1) {
+            meterRegistry.counter("aws.sdk.retries", tags(executionAttributes)).increment();
+        }
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        if (isThrottled(context.httpResponse())) {
+            executionAttributes.getAttribute(CALL).lastAttemptThrottled = true;
+            meterRegistry.counter("aws.sdk.throttles", tags(executionAttributes)).increment();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        recordLatency(executionAttributes, "success");
+        recordBytes(executionAttributes, "sent", context.httpRequest());
+        recordBytes(executionAttributes, "received", context.httpResponse());
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        // Some services (SES) only signal throttling in the error body, which the response headers don't show
+        if (context.exception() instanceof SdkServiceException e && e.isThrottlingException()
+                && !executionAttributes.getAttribute(CALL).lastAttemptThrottled) {
+            meterRegistry.counter("aws.sdk.throttles", tags(executionAttributes)).increment();
+        }
+        recordLatency(executionAttributes, "error");
+    }
+
+    private void recordLatency(ExecutionAttributes executionAttributes, String outcome) {
+        Call call = executionAttributes.getAttribute(CALL);
+        Timer.builder("aws.sdk.requests")
+                .tags(tags(executionAttributes).and("outcome", outcome))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - call.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordBytes(ExecutionAttributes executionAttributes, String direction, SdkHttpHeaders message) {
+        message.firstMatchingHeader("Content-Length")
+                .map(Long::parseLong)
+                .filter(length -> length > 0)
+                .ifPresent(length -> DistributionSummary.builder("aws.sdk.bytes")
+                        .baseUnit("bytes")
+                        .tags(tags(executionAttributes).and("direction", direction))
+                        .register(meterRegistry)
+                        .record(length));
+    }
+
+    private static boolean isThrottled(SdkHttpResponse response) {
+        // 429 for most JSON services, 503 SlowDown for S3; DynamoDB reports throttling as a 400 with an error type header
+        if (response.statusCode() == 429 || response.statusCode() == 503) {
+            return true;
+        }
+        return response.firstMatchingHeader("x-amzn-ErrorType")
+                .map(type -> type.startsWith("ThrottlingException")
+                        || type.startsWith("ProvisionedThroughputExceededException")
+                        || type.startsWith("RequestLimitExceeded"))
+                .orElse(false);
+    }
+
+    private static Tags tags(ExecutionAttributes executionAttributes) {
+        return Tags.of(
+                "service", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)),
+                "operation", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)));
+    }
+}
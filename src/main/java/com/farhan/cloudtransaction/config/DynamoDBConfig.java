@@ -4,7 +4,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 @Configuration
@@ -14,10 +17,22 @@ public class DynamoDBConfig {
     private String awsRegion;
     
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    public DynamoDbClient dynamoDbClient(AwsSdkMetricsInterceptor metricsInterceptor, SdkHttpClient awsHttpClient) {
         return DynamoDbClient.builder()
                 .region(Region.of(awsRegion))
+                .httpClient(awsHttpClient)
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(metricsInterceptor))
+                .build();
+    }
+
+    @Bean
+    public DynamoDbAsyncClient dynamoDbAsyncClient(AwsSdkMetricsInterceptor metricsInterceptor, SdkAsyncHttpClient awsAsyncHttpClient) {
+        return DynamoDbAsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .httpClient(awsAsyncHttpClient)
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(metricsInterceptor))
                 .build();
     }
 }
@@ -0,0 +1,26 @@
+package com.farhan.cloudtransaction.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+
+@Configuration
+public class EventBridgeConfig {
+
+    @Value("${aws.region}")
+    private String awsRegion;
+
+    @Bean
+    public EventBridgeClient eventBridgeClient(AwsSdkMetricsInterceptor metricsInterceptor, SdkHttpClient awsHttpClient) {
+        return EventBridgeClient.builder()
+                .region(Region.of(awsRegion))
+                .httpClient(awsHttpClient)
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(metricsInterceptor))
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.farhan.cloudtransaction.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Same switch that moves Tomcat request handling onto virtual threads
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${app.serviceExecutor.threads:32}")
+    private int serviceExecutorThreads;
+
+    // Used by services to fan out independent blocking AWS calls
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService serviceExecutor() {
+        if (virtualThreadsEnabled) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(serviceExecutorThreads);
+    }
+
+    // Defining serviceExecutor makes Boot's applicationTaskExecutor back off, and MVC async requests
+    // (streaming exports and downloads, CompletableFuture handlers) would then fall back to an
+    // unbounded SimpleAsyncTaskExecutor. Recreate it under the name MVC looks up, from Boot's own
+    // builders so spring.task.execution.* and virtual threads still apply.
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+            SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder) {
+        if (virtualThreadsEnabled) {
+            return simpleAsyncTaskExecutorBuilder.build();
+        }
+        return threadPoolTaskExecutorBuilder.build();
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ses.SesClient;
 
@@ -14,10 +15,12 @@ public class NotificationConfig {
     private String awsRegion;
 
     @Bean
-    public SesClient sesClient() {
+    public SesClient sesClient(AwsSdkMetricsInterceptor metricsInterceptor, SdkHttpClient awsHttpClient) {
         return SesClient.builder()
                 .region(Region.of(awsRegion))
+                .httpClient(awsHttpClient)
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(metricsInterceptor))
                 .build();
     }
 }
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -15,10 +16,12 @@ public class S3Config {
     private String awsRegion;
 
     @Bean
-    public S3Client s3Client() {
+    public S3Client s3Client(AwsSdkMetricsInterceptor metricsInterceptor, SdkHttpClient awsHttpClient) {
         return S3Client.builder()
                 .region(Region.of(awsRegion))
+                .httpClient(awsHttpClient)
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(metricsInterceptor))
                 .build();
     }
 
@@ -0,0 +1,55 @@
+package com.farhan.cloudtransaction.controller;
+
+import com.farhan.cloudtransaction.dto.ApiResponse;
+import com.farhan.cloudtransaction.dto.CampaignStatus;
+import com.farhan.cloudtransaction.dto.CreateCampaignRequest;
+import com.farhan.cloudtransaction.service.CampaignService;
+
+import jakarta.validation.Valid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/campaigns")
+public class CampaignController {
+
+    private final CampaignService campaignService;
+    private static final Logger logger = LoggerFactory.getLogger(CampaignController.class);
+
+    public CampaignController(CampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<CampaignStatus>> startCampaign(@Valid @RequestBody CreateCampaignRequest request) {
+        try {
+            CampaignStatus status = campaignService.startCampaign(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Campaign started", status));
+        } catch (Exception e) {
+            logger.error("Error starting campaign: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to start campaign: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CampaignStatus>> getCampaign(@PathVariable String id) {
+        try {
+            CampaignStatus status = campaignService.getCampaignStatus(id);
+            return ResponseEntity.ok(ApiResponse.success("Campaign retrieved successfully", status));
+        } catch (Exception e) {
+            logger.error("Error retrieving campaign {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to retrieve campaign: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CampaignStatus>>> getCampaigns() {
+        return ResponseEntity.ok(ApiResponse.success("Campaigns retrieved successfully", campaignService.getCampaigns()));
+    }
+}
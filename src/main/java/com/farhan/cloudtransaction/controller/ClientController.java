@@ -0,0 +1,36 @@
+package com.farhan.cloudtransaction.controller;
+
+import com.farhan.cloudtransaction.dto.ApiResponse;
+import com.farhan.cloudtransaction.dto.ClientSummaryDTO;
+import com.farhan.cloudtransaction.service.TransactionService;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/clients")
+@Timed(value = "api.clients", histogram = true)
+public class ClientController {
+
+    private final TransactionService transactionService;
+    private static final Logger logger = LoggerFactory.getLogger(ClientController.class);
+
+    public ClientController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @GetMapping("/{clientId}/summary")
+    public ResponseEntity<ApiResponse<ClientSummaryDTO>> getClientSummary(@PathVariable String clientId) {
+        try {
+            ClientSummaryDTO summary = transactionService.getClientSummary(clientId);
+            return ResponseEntity.ok(ApiResponse.success("Client summary retrieved successfully", summary));
+        } catch (Exception e) {
+            logger.error("Error retrieving summary for client {}: {}", clientId, e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to retrieve client summary: " + e.getMessage()));
+        }
+    }
+}
@@ -2,31 +2,66 @@ package com.farhan.cloudtransaction.controller;
 
 import com.farhan.cloudtransaction.dto.ApiResponse;
 import com.farhan.cloudtransaction.dto.CreateTransactionRequest;
+import com.farhan.cloudtransaction.dto.DownloadUrlResult;
+import com.farhan.cloudtransaction.dto.DownloadUrlsRequest;
+import com.farhan.cloudtransaction.dto.FileDownload;
+import com.farhan.cloudtransaction.dto.ImportReport;
+import com.farhan.cloudtransaction.dto.PagedResult;
 import com.farhan.cloudtransaction.dto.SendNotificationRequest;
 import com.farhan.cloudtransaction.dto.TransactionDTO;
 import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.service.RangeNotSatisfiableException;
+import com.farhan.cloudtransaction.service.S3Service;
+import com.farhan.cloudtransaction.service.TransactionImportService;
 import com.farhan.cloudtransaction.service.TransactionService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.validation.Valid;
 
+import io.micrometer.core.annotation.Timed;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/transactions")
+@Timed(value = "api.transactions", histogram = true)
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final ObjectMapper objectMapper;
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("bytes=(\\d+-\\d*|-\\d+)");
+    // gzip listed in Accept-Encoding without q=0
+    static final Pattern ACCEPTS_GZIP = Pattern.compile(
+            "(^|,)\\s*gzip\\s*(;\\s*q=(1(\\.0*)?|0\\.\\d*[1-9]\\d*))?\\s*(,|$)", Pattern.CASE_INSENSITIVE);
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionImportService transactionImportService,
+            ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.transactionImportService = transactionImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -40,6 +75,17 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<ImportReport>> importTransactions(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = transactionImportService.importTransactions(in);
+            return ResponseEntity.ok(ApiResponse.success("Imported " + report.imported() + " of " + report.totalRows() + " transactions", report));
+        } catch (Exception e) {
+            logger.error("Error importing transactions: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to import transactions: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<TransactionDTO>> getTransaction(@PathVariable String id) {
         try {
@@ -52,14 +98,49 @@ public class TransactionController {
     }
     
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<ApiResponse<List<TransactionDTO>>> getTransactionsByClient(@PathVariable String clientId) {
+    public CompletableFuture<ResponseEntity<ApiResponse<PagedResult<TransactionDTO>>>> getTransactionsByClient(
+            @PathVariable String clientId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        // Completes on an SDK thread; the servlet thread is released while DynamoDB answers
+        return transactionService.getTransactionsByClientIdAsync(clientId, limit, cursor)
+                .thenApply(transactions -> ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", transactions)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    logger.error("Error retrieving transactions for client {}: {}", clientId, cause.getMessage());
+                    return ResponseEntity.badRequest().body(ApiResponse.error("Failed to retrieve transactions: " + cause.getMessage()));
+                });
+    }
+
+    @GetMapping("/client/{clientId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByClient(
+            @PathVariable String clientId,
+            @RequestParam(required = false) String cursor) {
+        // The 200 is committed before the first page is read, so a bad cursor has to be caught here
         try {
-            List<TransactionDTO> transactions = transactionService.getTransactionsByClientId(clientId);
-            return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", transactions));
-        } catch (Exception e) {
-            logger.error("Error retrieving transactions for client {}: {}", clientId, e.getMessage());
-            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to retrieve transactions: " + e.getMessage()));
+            transactionService.validateClientCursor(clientId, cursor);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected export cursor for client {}: {}", clientId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
+
+        // One transaction per line; after each page a {"nextCursor": ...} line records where to resume.
+        // The stream is complete when nextCursor is null.
+        StreamingResponseBody body = out -> {
+            try {
+                transactionService.exportTransactionsByClientId(clientId, cursor, page -> {
+                    page.items().forEach(transaction -> writeLine(out, transaction));
+                    writeLine(out, Collections.singletonMap("nextCursor", page.nextCursor()));
+                    flush(out);
+                });
+            } catch (Exception e) {
+                logger.error("Error exporting transactions for client {}: {}", clientId, e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping("/{id}/notify")
@@ -83,19 +164,71 @@ public class TransactionController {
     }
 
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable String id) {
+    public ResponseEntity<StreamingResponseBody> downloadFile(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            byte[] fileData = transactionService.downloadTransactionFile(id);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + id + "-document")
-                    .body(fileData);
+            // S3 only serves single byte ranges; anything else gets the full object
+            String byteRange = range != null && SINGLE_BYTE_RANGE.matcher(range).matches() ? range : null;
+            boolean acceptsGzip = acceptEncoding != null && ACCEPTS_GZIP.matcher(acceptEncoding).find();
+            FileDownload download = transactionService.downloadTransactionFile(id, byteRange, acceptsGzip);
+
+            StreamingResponseBody body = out -> {
+                try (InputStream in = download.content()) {
+                    in.transferTo(out);
+                }
+            };
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(download.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                    .headers(downloadHeaders(download));
+            if (download.isPartial()) {
+                response.header(HttpHeaders.CONTENT_RANGE, download.contentRange());
+            }
+            if (download.contentEncoding() != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, download.contentEncoding());
+            }
+            return response.body(body);
+        } catch (RangeNotSatisfiableException e) {
+            logger.warn("Unsatisfiable range {} for transaction {}", range, id);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + e.getTotalLength())
+                    .build();
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                logger.warn("Unsatisfiable range {} for transaction {}", range, id);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).build();
+            }
+            logger.error("Error downloading file for transaction {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(null);
         } catch (Exception e) {
             logger.error("Error downloading file for transaction {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(null);
         }
     }
+
+    @RequestMapping(value = "/{id}/download", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getFileHeaders(@PathVariable String id) {
+        try {
+            FileDownload metadata = transactionService.getTransactionFileMetadata(id);
+            return ResponseEntity.ok().headers(downloadHeaders(metadata)).build();
+        } catch (Exception e) {
+            logger.error("Error reading file metadata for transaction {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
     
+    @PostMapping("/download-urls")
+    public ResponseEntity<ApiResponse<List<DownloadUrlResult>>> getDownloadUrls(@Valid @RequestBody DownloadUrlsRequest request) {
+        try {
+            List<DownloadUrlResult> urls = transactionService.getFileDownloadUrls(request.transactionIds());
+            return ResponseEntity.ok(ApiResponse.success("Download URLs generated successfully", urls));
+        } catch (Exception e) {
+            logger.error("Error generating download URLs: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to generate download URLs: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}/download-url")
     public ResponseEntity<ApiResponse<String>> getDownloadUrl(@PathVariable String id) {
         try {
@@ -106,4 +239,37 @@ public class TransactionController {
             return ResponseEntity.badRequest().body(ApiResponse.error("Failed to generate download URL: " + e.getMessage()));
         }
     }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpHeaders downloadHeaders(FileDownload download) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(download.contentType()));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, S3Service.attachment(download.fileName()));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (download.contentLength() >= 0) {
+            headers.setContentLength(download.contentLength());
+        }
+        if (download.eTag() != null) {
+            headers.setETag(download.eTag());
+        }
+        // Compressed documents are sent gzip-encoded or decoded depending on Accept-Encoding
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        return headers;
+    }
 }
@@ -1,10 +1,17 @@
 package com.farhan.cloudtransaction.controller;
 
 import com.farhan.cloudtransaction.dto.ApiResponse;
+import com.farhan.cloudtransaction.dto.CompleteUploadRequest;
+import com.farhan.cloudtransaction.dto.DirectUploadRequest;
+import com.farhan.cloudtransaction.dto.PresignedUpload;
 import com.farhan.cloudtransaction.service.TransactionService;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +20,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/upload")
+@Timed(value = "api.upload", histogram = true)
 public class UploadController {
 
     private final TransactionService transactionService;
@@ -30,6 +38,7 @@ public class UploadController {
             transactionService.validateUploadToken(token);
             
             model.addAttribute("token", token);
+            model.addAttribute("directUpload", transactionService.isDirectUploadEnabled());
             return "upload-form";
         } catch (Exception e) {
             logger.error("Invalid upload token: {}", token);
@@ -84,4 +93,34 @@ public class UploadController {
             return ApiResponse.error("Failed to upload file: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Direct-to-S3 upload, step 1: a presigned PUT for the described file
+    @ResponseBody
+    @PostMapping("/api/{token}/direct")
+    public ResponseEntity<ApiResponse<PresignedUpload>> createDirectUpload(
+            @PathVariable String token,
+            @Valid @RequestBody DirectUploadRequest request) {
+        try {
+            PresignedUpload upload = transactionService.createDirectUpload(token, request);
+            return ResponseEntity.ok(ApiResponse.success("Upload URL generated successfully", upload));
+        } catch (Exception e) {
+            logger.error("Error creating direct upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to start upload: " + e.getMessage()));
+        }
+    }
+
+    // Step 2, after the browser has PUT the file to S3
+    @ResponseBody
+    @PostMapping("/api/{token}/direct/complete")
+    public ResponseEntity<ApiResponse<String>> completeDirectUpload(
+            @PathVariable String token,
+            @Valid @RequestBody CompleteUploadRequest request) {
+        try {
+            transactionService.completeDirectUpload(token, request.fileKey());
+            return ResponseEntity.ok(ApiResponse.success("File uploaded successfully"));
+        } catch (Exception e) {
+            logger.error("Error completing direct upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to upload file: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.farhan.cloudtransaction.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CampaignStatus(
+    String campaignId,
+    String status,
+    long queued,
+    long sent,
+    long skipped,
+    long failed,
+    double sendsPerSecond,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    List<CampaignFailure> recentFailures
+) {
+    public record CampaignFailure(String transactionId, String error) {
+    }
+}
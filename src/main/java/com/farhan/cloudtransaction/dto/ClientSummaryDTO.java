@@ -0,0 +1,31 @@
+package com.farhan.cloudtransaction.dto;
+
+import com.farhan.cloudtransaction.entity.ClientSummary;
+import java.time.LocalDateTime;
+
+public record ClientSummaryDTO(
+    String clientId,
+    long totalTransactions,
+    long openTransactions,
+    long completedTransactions,
+    LocalDateTime lastActivityAt
+) {
+    public ClientSummaryDTO(ClientSummary summary) {
+        this(
+            summary.getClientId(),
+            valueOf(summary.getTotalTransactions()),
+            valueOf(summary.getOpenTransactions()),
+            valueOf(summary.getCompletedTransactions()),
+            summary.getLastActivityAt()
+        );
+    }
+
+    // A client with no transactions yet has no summary item
+    public static ClientSummaryDTO empty(String clientId) {
+        return new ClientSummaryDTO(clientId, 0, 0, 0, null);
+    }
+
+    private static long valueOf(Long counter) {
+        return counter == null ? 0 : counter;
+    }
+}
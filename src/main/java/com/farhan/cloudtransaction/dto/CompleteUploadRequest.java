@@ -0,0 +1,9 @@
+package com.farhan.cloudtransaction.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record CompleteUploadRequest(
+    @NotBlank(message = "File key is required")
+    String fileKey
+) {
+}
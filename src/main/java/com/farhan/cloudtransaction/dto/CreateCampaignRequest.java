@@ -0,0 +1,37 @@
+package com.farhan.cloudtransaction.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+
+public record CreateCampaignRequest(
+    String clientId, // Remind every incomplete transaction of this client
+    List<String> transactionIds, // Or remind exactly these transactions
+    Boolean allIncomplete, // Or remind every incomplete transaction
+    
+    @NotBlank(message = "Subject is required")
+    String subject,
+    
+    @NotBlank(message = "Message is required")
+    String message,
+    
+    Integer parallelism
+) {
+    // Compact canonical constructor for validation
+    public CreateCampaignRequest {
+        if (subject == null || subject.isBlank()) {
+            throw new IllegalArgumentException("Subject cannot be blank");
+        }
+        if (message == null || message.isBlank()) {
+            throw new IllegalArgumentException("Message cannot be blank");
+        }
+        int targets = (clientId != null && !clientId.isBlank() ? 1 : 0)
+                + (transactionIds != null && !transactionIds.isEmpty() ? 1 : 0)
+                + (Boolean.TRUE.equals(allIncomplete) ? 1 : 0);
+        if (targets != 1) {
+            throw new IllegalArgumentException("Specify exactly one of clientId, transactionIds or allIncomplete");
+        }
+        if (parallelism != null && parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+    }
+}
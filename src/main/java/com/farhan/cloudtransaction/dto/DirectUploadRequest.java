@@ -0,0 +1,15 @@
+package com.farhan.cloudtransaction.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public record DirectUploadRequest(
+    @NotBlank(message = "File name is required")
+    String fileName,
+
+    String contentType,
+
+    @Positive(message = "File size must be positive")
+    long size
+) {
+}
@@ -0,0 +1,15 @@
+package com.farhan.cloudtransaction.dto;
+
+public record DownloadUrlResult(
+    String transactionId,
+    String downloadUrl,
+    String error
+) {
+    public static DownloadUrlResult success(String transactionId, String downloadUrl) {
+        return new DownloadUrlResult(transactionId, downloadUrl, null);
+    }
+
+    public static DownloadUrlResult failure(String transactionId, String error) {
+        return new DownloadUrlResult(transactionId, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.farhan.cloudtransaction.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record DownloadUrlsRequest(
+    @NotEmpty(message = "Transaction IDs are required")
+    List<String> transactionIds
+) {
+    // Compact canonical constructor for validation
+    public DownloadUrlsRequest {
+        if (transactionIds == null || transactionIds.isEmpty()) {
+            throw new IllegalArgumentException("Transaction IDs cannot be empty");
+        }
+    }
+}
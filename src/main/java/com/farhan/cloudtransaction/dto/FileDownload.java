@@ -0,0 +1,22 @@
+package com.farhan.cloudtransaction.dto;
+
+import java.io.InputStream;
+
+public record FileDownload(
+    InputStream content, // null for metadata-only (HEAD) lookups
+    long contentLength, // -1 when unknown
+    String contentRange, // set when only part of the object is returned
+    String eTag,
+    Long totalLength,
+    String contentEncoding, // "gzip" when the stored compressed bytes are returned as-is
+    String fileName, // original name of the uploaded file, when known
+    String contentType // media type of the decoded document, when known
+) {
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+
+    public FileDownload named(String fileName, String contentType) {
+        return new FileDownload(content, contentLength, contentRange, eTag, totalLength, contentEncoding, fileName, contentType);
+    }
+}
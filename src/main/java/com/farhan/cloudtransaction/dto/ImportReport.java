@@ -0,0 +1,19 @@
+package com.farhan.cloudtransaction.dto;
+
+import java.util.List;
+
+public record ImportReport(
+    long totalRows,
+    long imported,
+    long failed,
+    List<ImportRowResult> rows
+) {
+    public ImportReport(List<ImportRowResult> rows) {
+        this(
+            rows.size(),
+            rows.stream().filter(ImportRowResult::isImported).count(),
+            rows.stream().filter(row -> !row.isImported()).count(),
+            rows
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.farhan.cloudtransaction.dto;
+
+public record ImportRowResult(
+    long row,
+    String status,
+    String transactionId,
+    String error
+) {
+    public static ImportRowResult imported(long row, String transactionId) {
+        return new ImportRowResult(row, "IMPORTED", transactionId, null);
+    }
+
+    public static ImportRowResult failed(long row, String error) {
+        return new ImportRowResult(row, "FAILED", null, error);
+    }
+
+    public boolean isImported() {
+        return "IMPORTED".equals(status);
+    }
+}
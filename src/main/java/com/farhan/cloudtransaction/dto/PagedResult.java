@@ -0,0 +1,17 @@
+package com.farhan.cloudtransaction.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public record PagedResult<T>(
+    List<T> items,
+    String nextCursor
+) {
+    public <R> PagedResult<R> map(Function<T, R> mapper) {
+        return new PagedResult<>(
+            items.stream().map(mapper).collect(Collectors.toList()),
+            nextCursor
+        );
+    }
+}
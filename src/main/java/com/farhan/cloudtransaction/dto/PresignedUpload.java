@@ -0,0 +1,13 @@
+package com.farhan.cloudtransaction.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+// A presigned S3 PUT; the browser must send exactly these headers with the file
+public record PresignedUpload(
+    String fileKey,
+    String uploadUrl,
+    Map<String, String> headers,
+    Instant expiresAt
+) {
+}
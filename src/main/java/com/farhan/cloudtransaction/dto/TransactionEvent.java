@@ -0,0 +1,28 @@
+package com.farhan.cloudtransaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+// Detail of the transaction lifecycle events published to EventBridge
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionEvent(
+    String transactionId,
+    String clientId,
+    String notificationId,
+    String fileKey,
+    LocalDateTime occurredAt
+) {
+    public static TransactionEvent created(String transactionId, String clientId, LocalDateTime createdAt) {
+        return new TransactionEvent(transactionId, clientId, null, null, createdAt);
+    }
+
+    public static TransactionEvent notificationSent(String transactionId, String clientId, String notificationId,
+            LocalDateTime sentAt) {
+        return new TransactionEvent(transactionId, clientId, notificationId, null, sentAt);
+    }
+
+    public static TransactionEvent documentUploaded(String transactionId, String clientId, String notificationId,
+            String fileKey) {
+        return new TransactionEvent(transactionId, clientId, notificationId, fileKey, LocalDateTime.now());
+    }
+}
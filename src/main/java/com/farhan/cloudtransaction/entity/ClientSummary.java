@@ -0,0 +1,61 @@
+package com.farhan.cloudtransaction.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import java.time.LocalDateTime;
+
+// Per-client transaction counters, kept up to date with ADD updates as transactions are created and completed
+@DynamoDbBean
+public class ClientSummary {
+
+    private String clientId;
+
+    private Long totalTransactions;
+
+    private Long openTransactions;
+
+    private Long completedTransactions;
+
+    private LocalDateTime lastActivityAt;
+
+    @DynamoDbPartitionKey
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getTotalTransactions() {
+        return totalTransactions;
+    }
+
+    public void setTotalTransactions(Long totalTransactions) {
+        this.totalTransactions = totalTransactions;
+    }
+
+    public Long getOpenTransactions() {
+        return openTransactions;
+    }
+
+    public void setOpenTransactions(Long openTransactions) {
+        this.openTransactions = openTransactions;
+    }
+
+    public Long getCompletedTransactions() {
+        return completedTransactions;
+    }
+
+    public void setCompletedTransactions(Long completedTransactions) {
+        this.completedTransactions = completedTransactions;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
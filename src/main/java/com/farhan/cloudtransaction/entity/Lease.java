@@ -0,0 +1,40 @@
+package com.farhan.cloudtransaction.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+// Time-limited ownership of a background job, so only one instance runs it at a time
+@DynamoDbBean
+public class Lease {
+
+    private String leaseName;
+
+    private String owner;
+
+    private Long expiresAt; // Epoch milliseconds
+
+    @DynamoDbPartitionKey
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public void setLeaseName(String leaseName) {
+        this.leaseName = leaseName;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -2,13 +2,23 @@ package com.farhan.cloudtransaction.entity;
 
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
 
 @DynamoDbBean
 public class Notification {
 
+    public static final String UPLOAD_TOKEN_INDEX = "uploadToken-index";
+    public static final String PENDING_INDEX = "pending-lastReminderAt-index";
+    // Unresolved notifications are spread over this many index partitions so that request and
+    // reminder writes do not all land on one key. Changing it strands notifications in old shards.
+    public static final int PENDING_SHARDS = 8;
+
     @NotBlank(message = "Notification ID is required")
     private String notificationId;
     
@@ -25,12 +35,26 @@ public class Notification {
     private String message;
     
     @NotNull(message = "Sent timestamp is required")
-    private LocalDateTime sentAt;
+    private LocalDateTime sentAt; // When the request email was sent
     
     private String uploadToken; // Unique token for secure file upload
     
     private Boolean isResolved; // Whether the client has uploaded the requested file
 
+    private String pendingShard; // Only present while unresolved reminders are still due (sparse index key)
+
+    private Integer reminderCount;
+
+    private LocalDateTime lastReminderAt; // When the request email, or the latest reminder, was sent
+
+    public static String pendingShard(String notificationId) {
+        return "PENDING#" + Math.floorMod(notificationId.hashCode(), PENDING_SHARDS);
+    }
+
+    public static List<String> pendingShards() {
+        return IntStream.range(0, PENDING_SHARDS).mapToObj(shard -> "PENDING#" + shard).toList();
+    }
+
     @DynamoDbPartitionKey
     public String getNotificationId() {
         return notificationId;
@@ -80,6 +104,7 @@ public class Notification {
         this.sentAt = sentAt;
     }
 
+    @DynamoDbSecondaryPartitionKey(indexNames = UPLOAD_TOKEN_INDEX)
     public String getUploadToken() {
         return uploadToken;
     }
@@ -95,4 +120,30 @@ public class Notification {
     public void setIsResolved(Boolean isResolved) {
         this.isResolved = isResolved;
     }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = PENDING_INDEX)
+    public String getPendingShard() {
+        return pendingShard;
+    }
+
+    public void setPendingShard(String pendingShard) {
+        this.pendingShard = pendingShard;
+    }
+
+    public Integer getReminderCount() {
+        return reminderCount;
+    }
+
+    public void setReminderCount(Integer reminderCount) {
+        this.reminderCount = reminderCount;
+    }
+
+    @DynamoDbSecondarySortKey(indexNames = PENDING_INDEX)
+    public LocalDateTime getLastReminderAt() {
+        return lastReminderAt;
+    }
+
+    public void setLastReminderAt(LocalDateTime lastReminderAt) {
+        this.lastReminderAt = lastReminderAt;
+    }
 } 
\ No newline at end of file
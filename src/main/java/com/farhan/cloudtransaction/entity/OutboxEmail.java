@@ -0,0 +1,159 @@
+package com.farhan.cloudtransaction.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+
+@DynamoDbBean
+public class OutboxEmail {
+
+    public static final String PENDING_INDEX = "pending-nextAttemptAt-index";
+    // A single index partition is enough here: delivery is paced to app.outbox.maxSendRate (SES allows
+    // 14/s by default), so pending emails take a few index writes per send, far below the 1,000 writes/s
+    // one partition sustains. Shard it like Notification.pendingShard if the send rate is raised past ~200/s.
+    public static final String PENDING = "PENDING";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @NotBlank(message = "Email ID is required")
+    private String emailId;
+
+    private String notificationId; // Set when the email belongs to a client notification
+
+    @NotBlank(message = "Recipient email is required")
+    private String recipientEmail;
+
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Body is required")
+    private String body;
+
+    private String status;
+
+    private String pendingShard; // Only present while the email is waiting to be sent (sparse index key)
+
+    private LocalDateTime nextAttemptAt;
+
+    private Integer attempts;
+
+    private LocalDateTime leaseUntil; // Set while a worker holds the delivery attempt; others may not claim before it passes
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @DynamoDbPartitionKey
+    public String getEmailId() {
+        return emailId;
+    }
+
+    public void setEmailId(String emailId) {
+        this.emailId = emailId;
+    }
+
+    public String getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(String notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = PENDING_INDEX)
+    public String getPendingShard() {
+        return pendingShard;
+    }
+
+    public void setPendingShard(String pendingShard) {
+        this.pendingShard = pendingShard;
+    }
+
+    @DynamoDbSecondarySortKey(indexNames = PENDING_INDEX)
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
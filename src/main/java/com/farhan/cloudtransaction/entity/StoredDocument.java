@@ -0,0 +1,81 @@
+package com.farhan.cloudtransaction.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import java.time.LocalDateTime;
+
+// One content-addressed S3 object and the number of uploads that refer to it
+@DynamoDbBean
+public class StoredDocument {
+
+    private String contentHash; // Hex SHA-256 of the uploaded (uncompressed) content
+
+    private Long refCount;
+
+    private Boolean stored; // Set once the object has been written to S3
+
+    private Boolean deleting; // Set when the last reference is released, until the object is deleted
+
+    private Long size;
+
+    private String contentType;
+
+    private LocalDateTime createdAt;
+
+    @DynamoDbPartitionKey
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Long refCount) {
+        this.refCount = refCount;
+    }
+
+    public Boolean getStored() {
+        return stored;
+    }
+
+    public void setStored(Boolean stored) {
+        this.stored = stored;
+    }
+
+    public Boolean getDeleting() {
+        return deleting;
+    }
+
+    public void setDeleting(Boolean deleting) {
+        this.deleting = deleting;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
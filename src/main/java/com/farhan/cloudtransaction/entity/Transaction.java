@@ -2,6 +2,8 @@ package com.farhan.cloudtransaction.entity;
 
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -9,6 +11,8 @@ import java.time.LocalDateTime;
 @DynamoDbBean
 public class Transaction {
 
+    public static final String CLIENT_INDEX = "clientId-createdAt-index";
+
     @NotBlank(message = "Transaction ID is required")
     private String transactionId;
 
@@ -22,6 +26,10 @@ public class Transaction {
     private Boolean isCompleted;
 
     private String fileKey; // S3 file reference
+
+    private String fileName; // Original name of the uploaded file; the S3 key may be shared by identical uploads
+
+    private String fileContentType; // Content type the file was uploaded with
     
     private String clientEmail; // Client's email for notifications
     
@@ -31,6 +39,26 @@ public class Transaction {
     
     private String notificationId; // ID of the last notification sent
 
+    private Boolean summaryCounted; // True once the transaction is included in its client's summary counters
+
+    public Transaction() {
+    }
+
+    public Transaction(Transaction other) {
+        this.transactionId = other.transactionId;
+        this.clientId = other.clientId;
+        this.description = other.description;
+        this.isCompleted = other.isCompleted;
+        this.fileKey = other.fileKey;
+        this.fileName = other.fileName;
+        this.fileContentType = other.fileContentType;
+        this.clientEmail = other.clientEmail;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.notificationId = other.notificationId;
+        this.summaryCounted = other.summaryCounted;
+    }
+
     @DynamoDbPartitionKey
     public String getTransactionId() {
         return transactionId;
@@ -40,6 +68,7 @@ public class Transaction {
         this.transactionId = transactionId;
     }
 
+    @DynamoDbSecondaryPartitionKey(indexNames = CLIENT_INDEX)
     public String getClientId() {
         return clientId;
     }
@@ -71,6 +100,22 @@ public class Transaction {
     public void setFileKey(String fileKey) {
         this.fileKey = fileKey;
     }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
     
     public String getClientEmail() {
         return clientEmail;
@@ -80,6 +125,7 @@ public class Transaction {
         this.clientEmail = clientEmail;
     }
     
+    @DynamoDbSecondarySortKey(indexNames = CLIENT_INDEX)
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -103,4 +149,12 @@ public class Transaction {
     public void setNotificationId(String notificationId) {
         this.notificationId = notificationId;
     }
-}
\ No newline at end of file
+
+    public Boolean getSummaryCounted() {
+        return summaryCounted;
+    }
+
+    public void setSummaryCounted(Boolean summaryCounted) {
+        this.summaryCounted = summaryCounted;
+    }
+}
@@ -0,0 +1,70 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Repository;
+
+import com.farhan.cloudtransaction.dto.PagedResult;
+import com.farhan.cloudtransaction.entity.Transaction;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking read of a page of a client's transactions, for the client listing endpoint.
+ * The call returns immediately and completes on SDK threads, so no request thread is held
+ * while DynamoDB responds. Everything else goes through {@link TransactionRepository}.
+ */
+@Repository
+public class AsyncTransactionRepository {
+    private final DynamoDbAsyncTable<Transaction> transactionTable;
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransactionRepository.class);
+
+    public AsyncTransactionRepository(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        DynamoDbEnhancedAsyncClient enhancedClient = DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .build();
+
+        this.transactionTable = enhancedClient.table("Transactions", TableSchema.fromBean(Transaction.class));
+    }
+
+    public CompletableFuture<PagedResult<Transaction>> getTransactionsByClientId(String clientId, int limit, String cursor) {
+        QueryEnhancedRequest request;
+        try {
+            request = TransactionRepository.clientPageRequest(clientId, limit, cursor);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        AtomicReference<Page<Transaction>> firstPage = new AtomicReference<>();
+        return transactionTable.index(Transaction.CLIENT_INDEX)
+                .query(request)
+                .limit(1)
+                .subscribe(firstPage::set)
+                .handle((ignored, e) -> {
+                    if (e != null) {
+                        logger.error("Error fetching transactions for client {}: {}", clientId, cause(e).getMessage());
+                        throw new CompletionException(new RuntimeException("Error fetching transactions", cause(e)));
+                    }
+                    Page<Transaction> page = firstPage.get();
+                    if (page == null) {
+                        return new PagedResult<>(Collections.emptyList(), null);
+                    }
+                    return new PagedResult<>(page.items(), PageCursor.encode(page.lastEvaluatedKey()));
+                });
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,136 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.stereotype.Repository;
+
+import com.farhan.cloudtransaction.entity.ClientSummary;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Repository
+public class ClientSummaryRepository {
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbTable<ClientSummary> summaryTable;
+    private static final Logger logger = LoggerFactory.getLogger(ClientSummaryRepository.class);
+
+    // ADD creates missing counters at zero, so the first transaction for a client creates its summary item
+    private static final String CREATED_EXPRESSION =
+            "ADD totalTransactions :count, openTransactions :count SET lastActivityAt = :now";
+
+    public ClientSummaryRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build();
+
+        this.summaryTable = enhancedClient.table("ClientSummaries", TableSchema.fromBean(ClientSummary.class));
+    }
+
+    public void createTableIfNotExists() {
+        try {
+            summaryTable.createTable();
+            logger.info("ClientSummaries table created successfully!");
+        } catch (ResourceInUseException e) {
+            logger.info("ClientSummaries table already exists");
+        } catch (DynamoDbException e) {
+            logger.error("Error creating ClientSummaries table: {}", e.getMessage());
+            throw new RuntimeException("Error creating ClientSummaries table", e);
+        }
+    }
+
+    String tableName() {
+        return summaryTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return summaryTable.tableSchema().tableMetadata();
+    }
+
+    // Null when the client has no transactions yet
+    public ClientSummary getSummary(String clientId) {
+        try {
+            return summaryTable.getItem(Key.builder().partitionValue(clientId).build());
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB Error while fetching summary for client {}: {}", clientId, e.getMessage());
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    // For writes that cannot join a transaction (BatchWriteItem imports)
+    public void recordCreated(String clientId, long count) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(summaryTable.tableName())
+                    .key(key(clientId))
+                    .updateExpression(CREATED_EXPRESSION)
+                    .expressionAttributeValues(createdValues(count))
+                    .build());
+        } catch (DynamoDbException e) {
+            logger.error("Failed to update summary for client {}: {}", clientId, e.getMessage());
+            throw new RuntimeException("Error updating client summary", e);
+        }
+    }
+
+    Update transactionCreated(String clientId) {
+        return Update.builder()
+                .tableName(summaryTable.tableName())
+                .key(key(clientId))
+                .updateExpression(CREATED_EXPRESSION)
+                .expressionAttributeValues(createdValues(1))
+                .build();
+    }
+
+    // A transaction created before the summaries existed was never counted as open, so it is
+    // counted now straight into completed rather than decrementing an open count it never added
+    Update transactionCompleted(String clientId, boolean counted) {
+        return Update.builder()
+                .tableName(summaryTable.tableName())
+                .key(key(clientId))
+                .updateExpression(counted
+                        ? "ADD openTransactions :minusOne, completedTransactions :one SET lastActivityAt = :now"
+                        : "ADD totalTransactions :one, completedTransactions :one SET lastActivityAt = :now")
+                .expressionAttributeValues(counted
+                        ? Map.of(
+                                ":minusOne", AttributeValue.fromN("-1"),
+                                ":one", AttributeValue.fromN("1"),
+                                ":now", TransactionRepository.timestamp(LocalDateTime.now()))
+                        : Map.of(
+                                ":one", AttributeValue.fromN("1"),
+                                ":now", TransactionRepository.timestamp(LocalDateTime.now())))
+                .build();
+    }
+
+    // Counts an existing transaction during the backfill; lastActivityAt is only set if the summary has none
+    Update transactionBackfilled(String clientId, boolean completed, LocalDateTime activityAt) {
+        return Update.builder()
+                .tableName(summaryTable.tableName())
+                .key(key(clientId))
+                .updateExpression("ADD totalTransactions :one, " + (completed ? "completedTransactions" : "openTransactions")
+                        + " :one SET lastActivityAt = if_not_exists(lastActivityAt, :activityAt)")
+                .expressionAttributeValues(Map.of(
+                        ":one", AttributeValue.fromN("1"),
+                        ":activityAt", TransactionRepository.timestamp(activityAt)))
+                .build();
+    }
+
+    private static Map<String, AttributeValue> key(String clientId) {
+        return Map.of("clientId", AttributeValue.fromS(clientId));
+    }
+
+    private static Map<String, AttributeValue> createdValues(long count) {
+        return Map.of(
+                ":count", AttributeValue.fromN(String.valueOf(count)),
+                ":now", TransactionRepository.timestamp(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.stereotype.Repository;
+
+import com.farhan.cloudtransaction.entity.StoredDocument;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reference counts for content-addressed document objects. Every upload takes a reference,
+ * and an object may only be deleted once the last reference has been released.
+ */
+@Repository
+public class DocumentRepository {
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbTable<StoredDocument> documentTable;
+    private static final Logger logger = LoggerFactory.getLogger(DocumentRepository.class);
+
+    public DocumentRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build();
+
+        this.documentTable = enhancedClient.table("Documents", TableSchema.fromBean(StoredDocument.class));
+    }
+
+    public void createTableIfNotExists() {
+        try {
+            documentTable.createTable();
+            logger.info("Documents table created successfully!");
+        } catch (ResourceInUseException e) {
+            logger.info("Documents table already exists");
+        } catch (DynamoDbException e) {
+            logger.error("Error creating Documents table: {}", e.getMessage());
+            throw new RuntimeException("Error creating Documents table", e);
+        }
+    }
+
+    String tableName() {
+        return documentTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return documentTable.tableSchema().tableMetadata();
+    }
+
+    // Adds a reference, creating the record for new content. Returns the updated record, whose stored flag
+    // tells the caller whether the object still has to be written, or null while the object is being deleted.
+    public StoredDocument acquire(String contentHash) {
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(documentTable.tableName())
+                    .key(key(contentHash))
+                    .updateExpression("ADD refCount :one SET createdAt = if_not_exists(createdAt, :now)")
+                    .conditionExpression("attribute_not_exists(deleting)")
+                    .expressionAttributeValues(Map.of(
+                            ":one", AttributeValue.fromN("1"),
+                            ":now", TransactionRepository.timestamp(LocalDateTime.now())))
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build());
+            return documentTable.tableSchema().mapToItem(response.attributes());
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Document {} is being deleted", contentHash);
+            return null;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to reference document {}: {}", contentHash, e.getMessage());
+            throw new RuntimeException("Error saving document reference", e);
+        }
+    }
+
+    public void markStored(String contentHash, long size, String contentType) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":true", AttributeValue.fromBool(true));
+        values.put(":size", AttributeValue.fromN(String.valueOf(size)));
+        values.put(":contentType", contentType != null ? AttributeValue.fromS(contentType) : AttributeValue.fromNul(true));
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(documentTable.tableName())
+                    .key(key(contentHash))
+                    .updateExpression("SET #stored = :true, #size = :size, contentType = :contentType")
+                    .expressionAttributeNames(Map.of("#stored", "stored", "#size", "size"))
+                    .expressionAttributeValues(values)
+                    .build());
+        } catch (DynamoDbException e) {
+            logger.error("Failed to mark document {} as stored: {}", contentHash, e.getMessage());
+            throw new RuntimeException("Error saving document reference", e);
+        }
+    }
+
+    // Drops a reference. Returns true if it was the last one; the record is then flagged as deleting,
+    // so new uploads of the same content don't reuse the object while the caller deletes it.
+    public boolean release(String contentHash) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(documentTable.tableName())
+                    .key(key(contentHash))
+                    .updateExpression("ADD refCount :minusOne")
+                    .conditionExpression("refCount > :zero")
+                    .expressionAttributeValues(Map.of(
+                            ":minusOne", AttributeValue.fromN("-1"),
+                            ":zero", AttributeValue.fromN("0")))
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Document {} has no references to release", contentHash);
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to release document {}: {}", contentHash, e.getMessage());
+            throw new RuntimeException("Error releasing document reference", e);
+        }
+
+        try {
+            // Only one releaser can win this, and only while nobody has taken a new reference
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(documentTable.tableName())
+                    .key(key(contentHash))
+                    .updateExpression("SET deleting = :true")
+                    .conditionExpression("refCount = :zero AND attribute_not_exists(deleting)")
+                    .expressionAttributeValues(Map.of(
+                            ":true", AttributeValue.fromBool(true),
+                            ":zero", AttributeValue.fromN("0")))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to release document {}: {}", contentHash, e.getMessage());
+            throw new RuntimeException("Error releasing document reference", e);
+        }
+    }
+
+    // Called after the object has been deleted, so the content can be stored again
+    public void delete(String contentHash) {
+        try {
+            dynamoDbClient.deleteItem(DeleteItemRequest.builder()
+                    .tableName(documentTable.tableName())
+                    .key(key(contentHash))
+                    .conditionExpression("deleting = :true")
+                    .expressionAttributeValues(Map.of(":true", AttributeValue.fromBool(true)))
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Document {} was already removed", contentHash);
+        } catch (DynamoDbException e) {
+            logger.error("Failed to delete document {}: {}", contentHash, e.getMessage());
+            throw new RuntimeException("Error deleting document reference", e);
+        }
+    }
+
+    private static Map<String, AttributeValue> key(String contentHash) {
+        return Map.of("contentHash", AttributeValue.fromS(contentHash));
+    }
+}
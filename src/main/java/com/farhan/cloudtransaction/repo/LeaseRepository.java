@@ -0,0 +1,100 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.stereotype.Repository;
+
+import com.farhan.cloudtransaction.entity.Lease;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Duration;
+
+@Repository
+public class LeaseRepository {
+    private final DynamoDbTable<Lease> leaseTable;
+    private static final Logger logger = LoggerFactory.getLogger(LeaseRepository.class);
+
+    public LeaseRepository(DynamoDbClient dynamoDbClient) {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build();
+
+        this.leaseTable = enhancedClient.table("Leases", TableSchema.fromBean(Lease.class));
+    }
+
+    public void createTableIfNotExists() {
+        try {
+            leaseTable.createTable();
+            logger.info("Leases table created successfully!");
+        } catch (ResourceInUseException e) {
+            logger.info("Leases table already exists");
+        } catch (DynamoDbException e) {
+            logger.error("Error creating Leases table: {}", e.getMessage());
+            throw new RuntimeException("Error creating Leases table", e);
+        }
+    }
+
+    String tableName() {
+        return leaseTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return leaseTable.tableSchema().tableMetadata();
+    }
+
+    // Takes the lease if it is free, expired or already ours (which extends it). Returns false if another owner holds it.
+    public boolean tryAcquire(String leaseName, String owner, Duration duration) {
+        long now = System.currentTimeMillis();
+        Lease lease = new Lease();
+        lease.setLeaseName(leaseName);
+        lease.setOwner(owner);
+        lease.setExpiresAt(now + duration.toMillis());
+        try {
+            leaseTable.putItem(PutItemEnhancedRequest.builder(Lease.class)
+                    .item(lease)
+                    .conditionExpression(Expression.builder()
+                            .expression("attribute_not_exists(leaseName) OR expiresAt < :now OR #owner = :owner")
+                            .putExpressionName("#owner", "owner")
+                            .putExpressionValue(":now", AttributeValue.fromN(String.valueOf(now)))
+                            .putExpressionValue(":owner", AttributeValue.fromS(owner))
+                            .build())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Lease {} is held by another owner", leaseName);
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to acquire lease {}: {}", leaseName, e.getMessage());
+            throw new RuntimeException("Error acquiring lease", e);
+        }
+    }
+
+    // Lets another instance take over straight away instead of waiting for the lease to expire
+    public void release(String leaseName, String owner) {
+        try {
+            leaseTable.deleteItem(DeleteItemEnhancedRequest.builder()
+                    .key(Key.builder().partitionValue(leaseName).build())
+                    .conditionExpression(Expression.builder()
+                            .expression("#owner = :owner")
+                            .putExpressionName("#owner", "owner")
+                            .putExpressionValue(":owner", AttributeValue.fromS(owner))
+                            .build())
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Lease {} was already taken over", leaseName);
+        } catch (DynamoDbException e) {
+            logger.warn("Failed to release lease {}: {}", leaseName, e.getMessage());
+        }
+    }
+}
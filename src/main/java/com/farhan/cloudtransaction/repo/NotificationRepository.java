@@ -10,22 +10,36 @@ import com.farhan.cloudtransaction.entity.Notification;
 
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import jakarta.annotation.PostConstruct;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Repository
 public class NotificationRepository {
+    private final DynamoDbClient dynamoDbClient;
     private final DynamoDbTable<Notification> notificationTable;
+    private final ParallelScanner parallelScanner;
     private static final Logger logger = LoggerFactory.getLogger(NotificationRepository.class);
 
-    public NotificationRepository(DynamoDbClient dynamoDbClient) {
+    public NotificationRepository(DynamoDbClient dynamoDbClient, ParallelScanner parallelScanner) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.parallelScanner = parallelScanner;
         DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoDbClient)
                 .build();
@@ -33,10 +47,19 @@ public class NotificationRepository {
         this.notificationTable = enhancedClient.table("Notifications", TableSchema.fromBean(Notification.class));
     }
 
-    @PostConstruct
     public void createTableIfNotExists() {
         try {
-            notificationTable.createTable(CreateTableEnhancedRequest.builder().build());
+            notificationTable.createTable(CreateTableEnhancedRequest.builder()
+                    .globalSecondaryIndices(
+                            EnhancedGlobalSecondaryIndex.builder()
+                                    .indexName(Notification.UPLOAD_TOKEN_INDEX)
+                                    .projection(p -> p.projectionType(ProjectionType.ALL))
+                                    .build(),
+                            EnhancedGlobalSecondaryIndex.builder()
+                                    .indexName(Notification.PENDING_INDEX)
+                                    .projection(p -> p.projectionType(ProjectionType.ALL))
+                                    .build())
+                    .build());
             logger.info("Notifications table created successfully!");
         } catch (ResourceInUseException e) {
             logger.info("Notifications table already exists");
@@ -70,29 +93,112 @@ public class NotificationRepository {
         }
     }
     
-    public Notification getNotificationByUploadToken(String uploadToken) {
+    String tableName() {
+        return notificationTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return notificationTable.tableSchema().tableMetadata();
+    }
+
+    // Unresolved notifications last contacted at or before the cutoff, one page at a time. Pages are
+    // taken from each shard in turn, so every shard is oldest first and none waits for the others
+    // to drain. Stops early when the consumer returns false.
+    public void forEachOverduePage(LocalDateTime remindedBefore, int pageSize, Predicate<List<Notification>> pageConsumer) {
         try {
-            List<Notification> notifications = new ArrayList<>();
-            notificationTable.scan(ScanEnhancedRequest.builder().build())
-                .items()
-                .forEach(notification -> {
-                    if (uploadToken.equals(notification.getUploadToken())) {
-                        notifications.add(notification);
+            List<Iterator<Page<Notification>>> shards = new ArrayList<>();
+            for (String shard : Notification.pendingShards()) {
+                QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.sortLessThanOrEqualTo(Key.builder()
+                                .partitionValue(shard)
+                                .sortValue(remindedBefore.toString())
+                                .build()))
+                        .limit(pageSize)
+                        .build();
+                shards.add(notificationTable.index(Notification.PENDING_INDEX).query(request).iterator());
+            }
+
+            while (!shards.isEmpty()) {
+                for (Iterator<Iterator<Page<Notification>>> it = shards.iterator(); it.hasNext(); ) {
+                    Iterator<Page<Notification>> pages = it.next();
+                    if (!pages.hasNext()) {
+                        it.remove();
+                        continue;
                     }
-                });
-            
-            if (notifications.isEmpty()) {
-                logger.warn("No notification found with upload token: {}", uploadToken);
+                    Page<Notification> page = pages.next();
+                    if (!page.items().isEmpty() && !pageConsumer.test(page.items())) {
+                        return;
+                    }
+                }
+            }
+        } catch (DynamoDbException e) {
+            logger.error("Error fetching overdue notifications: {}", e.getMessage());
+            throw new RuntimeException("Error fetching notifications", e);
+        }
+    }
+
+    // Moves lastReminderAt forward only if nobody has reminded or resolved the notification since it
+    // was read, so each reminder is claimed by exactly one worker. sentAt keeps the original request
+    // time. The last allowed reminder also leaves the index.
+    public boolean claimReminder(Notification notification, LocalDateTime remindedAt, boolean lastReminder) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(notificationTable.tableName())
+                    .key(Map.of("notificationId", AttributeValue.fromS(notification.getNotificationId())))
+                    .updateExpression("SET lastReminderAt = :now ADD reminderCount :one" + (lastReminder ? " REMOVE pendingShard" : ""))
+                    .conditionExpression("attribute_exists(pendingShard) AND lastReminderAt = :lastReminderAt")
+                    .expressionAttributeValues(Map.of(
+                            ":now", TransactionRepository.timestamp(remindedAt),
+                            ":one", AttributeValue.fromN("1"),
+                            ":lastReminderAt", TransactionRepository.timestamp(notification.getLastReminderAt())))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Reminder for notification {} already claimed or resolved", notification.getNotificationId());
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to claim reminder for notification {}: {}", notification.getNotificationId(), e.getMessage());
+            throw new RuntimeException("Error saving notification", e);
+        }
+    }
+
+    public Notification getNotificationByUploadToken(String uploadToken) {
+        try {
+            QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                    .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(uploadToken)))
+                    .limit(1)
+                    .build();
+
+            Notification notification = notificationTable.index(Notification.UPLOAD_TOKEN_INDEX)
+                    .query(request)
+                    .stream()
+                    .flatMap(page -> page.items().stream())
+                    .findFirst()
+                    .orElse(null);
+
+            if (notification == null) {
+                logger.debug("No notification found for upload token");
                 throw new RuntimeException("No notification found with the provided upload token");
             }
-            
-            return notifications.get(0);
+
+            return notification;
         } catch (DynamoDbException e) {
             logger.error("Error fetching notification by upload token: {}", e.getMessage());
             throw new RuntimeException("Error fetching notification", e);
         }
     }
-    
+
+    // Full-table sweep for reports and admin jobs; pages arrive concurrently, so the consumer must be thread-safe
+    public ParallelScanner.Result scanNotifications(Expression filter, Consumer<List<Notification>> pageConsumer) {
+        try {
+            return parallelScanner.scan(tableName(), notificationTable::scan,
+                    ScanEnhancedRequest.builder().filterExpression(filter).build(), pageConsumer);
+        } catch (DynamoDbException e) {
+            logger.error("Error scanning notifications: {}", e.getMessage());
+            throw new RuntimeException("Error fetching notifications", e);
+        }
+    }
+
     public List<Notification> getNotificationsByTransactionId(String transactionId) {
         try {
             List<Notification> notifications = new ArrayList<>();
@@ -0,0 +1,131 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.stereotype.Repository;
+
+import com.farhan.cloudtransaction.entity.OutboxEmail;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public class OutboxRepository {
+    private final DynamoDbTable<OutboxEmail> outboxTable;
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRepository.class);
+
+    public OutboxRepository(DynamoDbClient dynamoDbClient) {
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build();
+
+        this.outboxTable = enhancedClient.table("EmailOutbox", TableSchema.fromBean(OutboxEmail.class));
+    }
+
+    public void createTableIfNotExists() {
+        try {
+            outboxTable.createTable(CreateTableEnhancedRequest.builder()
+                    .globalSecondaryIndices(EnhancedGlobalSecondaryIndex.builder()
+                            .indexName(OutboxEmail.PENDING_INDEX)
+                            .projection(p -> p.projectionType(ProjectionType.ALL))
+                            .build())
+                    .build());
+            logger.info("EmailOutbox table created successfully!");
+        } catch (ResourceInUseException e) {
+            logger.info("EmailOutbox table already exists");
+        } catch (DynamoDbException e) {
+            logger.error("Error creating EmailOutbox table: {}", e.getMessage());
+            throw new RuntimeException("Error creating EmailOutbox table", e);
+        }
+    }
+
+    String tableName() {
+        return outboxTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return outboxTable.tableSchema().tableMetadata();
+    }
+
+    public void saveEmail(OutboxEmail email) {
+        try {
+            outboxTable.putItem(email);
+        } catch (DynamoDbException e) {
+            logger.error("Failed to save outbox email {}: {}", email.getEmailId(), e.getMessage());
+            throw new RuntimeException("Error saving outbox email", e);
+        }
+    }
+
+    // Saves the email only if nobody else has changed its attempt count since it was read and no
+    // other worker's lease is still running, so a single worker (on any node) owns each delivery attempt
+    public boolean claimEmail(OutboxEmail email, int expectedAttempts, LocalDateTime now) {
+        return conditionalSave(email, Expression.builder()
+                .expression("attempts = :attempts AND (attribute_not_exists(leaseUntil) OR leaseUntil < :now)")
+                .putExpressionValue(":attempts", AttributeValue.builder().n(String.valueOf(expectedAttempts)).build())
+                .putExpressionValue(":now", TransactionRepository.timestamp(now))
+                .build(), "claimed");
+    }
+
+    // Records the outcome of a claimed attempt. Fails when the lease ran out and another worker
+    // claimed the email since, in which case that worker owns its state.
+    public boolean completeAttempt(OutboxEmail email, int claimedAttempts) {
+        return conditionalSave(email, Expression.builder()
+                .expression("attempts = :attempts")
+                .putExpressionValue(":attempts", AttributeValue.builder().n(String.valueOf(claimedAttempts)).build())
+                .build(), "reclaimed");
+    }
+
+    private boolean conditionalSave(OutboxEmail email, Expression condition, String conflict) {
+        try {
+            outboxTable.putItem(PutItemEnhancedRequest.builder(OutboxEmail.class)
+                    .item(email)
+                    .conditionExpression(condition)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("Outbox email {} already {} by another worker", email.getEmailId(), conflict);
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to update outbox email {}: {}", email.getEmailId(), e.getMessage());
+            throw new RuntimeException("Error updating outbox email", e);
+        }
+    }
+
+    public List<OutboxEmail> findDueEmails(LocalDateTime now, int limit) {
+        try {
+            QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                    .queryConditional(QueryConditional.sortLessThanOrEqualTo(Key.builder()
+                            .partitionValue(OutboxEmail.PENDING)
+                            .sortValue(now.toString())
+                            .build()))
+                    .limit(limit)
+                    .build();
+
+            return outboxTable.index(OutboxEmail.PENDING_INDEX)
+                    .query(request)
+                    .stream()
+                    .limit(1)
+                    .flatMap(page -> page.items().stream())
+                    .collect(Collectors.toList());
+        } catch (DynamoDbException e) {
+            logger.error("Error fetching due outbox emails: {}", e.getMessage());
+            throw new RuntimeException("Error fetching outbox emails", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.farhan.cloudtransaction.repo;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes a DynamoDB LastEvaluatedKey as an opaque, URL-safe cursor string so it can be
+ * handed to API clients and passed back to resume a query.
+ */
+public final class PageCursor {
+
+    private static final Gson gson = new Gson();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+    private PageCursor() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> encoded = new LinkedHashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> {
+            if (value.s() != null) {
+                encoded.put(name, "S:" + value.s());
+            } else if (value.n() != null) {
+                encoded.put(name, "N:" + value.n());
+            } else {
+                throw new IllegalStateException("Unsupported key attribute type for " + name);
+            }
+        });
+        byte[] json = gson.toJson(encoded).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    }
+
+    public static Map<String, AttributeValue> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, String> encoded = gson.fromJson(json, MAP_TYPE);
+            if (encoded == null || encoded.isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Map<String, AttributeValue> key = new LinkedHashMap<>();
+            encoded.forEach((name, value) -> {
+                if (value == null || value.length() < 2 || value.charAt(1) != ':') {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                String raw = value.substring(2);
+                switch (value.charAt(0)) {
+                    case 'S' -> key.put(name, AttributeValue.builder().s(raw).build());
+                    case 'N' -> key.put(name, AttributeValue.builder().n(raw).build());
+                    default -> throw new IllegalArgumentException("Invalid cursor");
+                }
+            });
+            return key;
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a whole table or index as parallel Scan segments, so reporting and admin sweeps finish
+ * in a fraction of the time of a single sequential scan. Every scan gets its own bounded worker
+ * pool, so a consumer that blocks (a rate-limited campaign, say) only slows its own sweep. Each
+ * segment can be held to a read capacity rate so a sweep never starves live traffic.
+ */
+@Component
+public class ParallelScanner {
+
+    public record Result(int segments, long pages, long items, double consumedCapacity, Duration elapsed) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScanner.class);
+
+    private final AtomicInteger scanCount = new AtomicInteger();
+    private final int workersPerScan;
+    private final int segments;
+    private final int pageSize;
+    // Read capacity units per second each segment may consume; 0 for no limit
+    private final double maxReadCapacityPerSecondPerSegment;
+
+    public ParallelScanner(@Value("${app.scan.workers:8}") int workersPerScan,
+            @Value("${app.scan.segments:8}") int segments,
+            @Value("${app.scan.pageSize:500}") int pageSize,
+            @Value("${app.scan.maxReadCapacityPerSecondPerSegment:0}") double maxReadCapacityPerSecondPerSegment) {
+        if (workersPerScan <= 0 || segments <= 0 || pageSize <= 0 || maxReadCapacityPerSecondPerSegment < 0) {
+            throw new IllegalArgumentException("Invalid parallel scan settings");
+        }
+        this.workersPerScan = workersPerScan;
+        this.segments = segments;
+        this.pageSize = pageSize;
+        this.maxReadCapacityPerSecondPerSegment = maxReadCapacityPerSecondPerSegment;
+    }
+
+    /**
+     * Scans every segment and hands each non-empty page to {@code pageConsumer}. Pages from
+     * different segments arrive concurrently and in no particular order, so the consumer must
+     * be thread-safe. Returns once every segment has finished; if one segment fails, the others
+     * stop at their next page and the failure is rethrown. Interrupting the caller stops the scan.
+     */
+    public <T> Result scan(String name, Function<ScanEnhancedRequest, ? extends SdkIterable<Page<T>>> scanner,
+            ScanEnhancedRequest request, Consumer<List<T>> pageConsumer) {
+        long start = System.nanoTime();
+        AtomicBoolean failed = new AtomicBoolean();
+        LongAdder pages = new LongAdder();
+        LongAdder items = new LongAdder();
+        DoubleAdder capacity = new DoubleAdder();
+
+        ExecutorService workers = newWorkers(name);
+        try {
+            List<CompletableFuture<Void>> tasks = IntStream.range(0, segments)
+                    .mapToObj(segment -> CompletableFuture.runAsync(() -> {
+                        try {
+                            scanSegment(scanner, request, segment, pageConsumer, failed, pages, items, capacity);
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }, workers))
+                    .toList();
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            logger.error("Parallel scan of {} failed: {}", name, cause.getMessage());
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException("Parallel scan failed", cause);
+        } catch (InterruptedException e) {
+            failed.set(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel scan interrupted", e);
+        } finally {
+            // Interrupts segments still running after a failure or interruption
+            workers.shutdownNow();
+        }
+
+        Result result = new Result(segments, pages.sum(), items.sum(), capacity.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Parallel scan of {} read {} items in {} pages over {} segments, {} RCU, {} ms",
+                name, result.items(), result.pages(), segments, result.consumedCapacity(), result.elapsed().toMillis());
+        return result;
+    }
+
+    private <T> void scanSegment(Function<ScanEnhancedRequest, ? extends SdkIterable<Page<T>>> scanner,
+            ScanEnhancedRequest request, int segment, Consumer<List<T>> pageConsumer,
+            AtomicBoolean failed, LongAdder pages, LongAdder items, DoubleAdder capacity) {
+        ScanEnhancedRequest segmentRequest = request.toBuilder()
+                .segment(segment)
+                .totalSegments(segments)
+                .limit(pageSize)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build();
+        long nextPageNanos = System.nanoTime();
+        // Pages are fetched lazily, so pausing between iterations delays the next Scan call
+        for (Page<T> page : scanner.apply(segmentRequest)) {
+            if (failed.get()) {
+                return;
+            }
+            pages.increment();
+            if (!page.items().isEmpty()) {
+                items.add(page.items().size());
+                pageConsumer.accept(page.items());
+            }
+            ConsumedCapacity consumed = page.consumedCapacity();
+            double units = consumed == null || consumed.capacityUnits() == null ? 0 : consumed.capacityUnits();
+            capacity.add(units);
+            if (maxReadCapacityPerSecondPerSegment > 0 && units > 0) {
+                // Spend the page's capacity against the segment's rate before asking for the next page
+                long now = System.nanoTime();
+                nextPageNanos = nextPageNanos(nextPageNanos, now, units, maxReadCapacityPerSecondPerSegment);
+                pause(nextPageNanos - now);
+            }
+        }
+    }
+
+    // Earliest time the next page may be requested so the segment averages at most ratePerSecond units.
+    // Idle time is not banked: a segment that was slow does not get to burst afterwards.
+    static long nextPageNanos(long previousNextPageNanos, long nowNanos, double consumedUnits, double ratePerSecond) {
+        return Math.max(previousNextPageNanos, nowNanos) + (long) (consumedUnits / ratePerSecond * 1_000_000_000L);
+    }
+
+    private ExecutorService newWorkers(String name) {
+        String prefix = "scan-" + scanCount.incrementAndGet() + "-" + name + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.min(workersPerScan, segments), runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Parallel scan interrupted", e);
+        }
+    }
+}
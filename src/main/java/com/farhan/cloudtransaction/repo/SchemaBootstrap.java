@@ -0,0 +1,154 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.KeyAttributeMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Makes sure the DynamoDB tables exist before the application takes traffic.
+ * Controlled by {@code app.dynamodb.schemaBootstrap}:
+ * <ul>
+ * <li>{@code create} - describe all tables in parallel and create the missing ones (local development)</li>
+ * <li>{@code verify} - describe all tables in parallel and fail startup if any is missing</li>
+ * <li>{@code none} - no control-plane calls at all; the tables are managed by Terraform</li>
+ * </ul>
+ * In both {@code create} and {@code verify}, an existing table whose key schema or global secondary
+ * indexes differ from the entity annotations also fails startup, since the queries on those indexes
+ * would otherwise only fail once traffic reaches them.
+ */
+@Component
+public class SchemaBootstrap {
+
+    private final DynamoDbClient dynamoDbClient;
+    private final ExecutorService serviceExecutor;
+    private final List<ManagedTable> tables = new ArrayList<>();
+    private static final Logger logger = LoggerFactory.getLogger(SchemaBootstrap.class);
+
+    @Value("${app.dynamodb.schemaBootstrap:create}")
+    private String mode;
+
+    public SchemaBootstrap(DynamoDbClient dynamoDbClient, ExecutorService serviceExecutor,
+            TransactionRepository transactionRepository, NotificationRepository notificationRepository,
+            OutboxRepository outboxRepository, ClientSummaryRepository clientSummaryRepository,
+            LeaseRepository leaseRepository, DocumentRepository documentRepository) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.serviceExecutor = serviceExecutor;
+        tables.add(new ManagedTable(transactionRepository.tableName(), transactionRepository.tableMetadata(),
+                transactionRepository::createTableIfNotExists));
+        tables.add(new ManagedTable(notificationRepository.tableName(), notificationRepository.tableMetadata(),
+                notificationRepository::createTableIfNotExists));
+        tables.add(new ManagedTable(outboxRepository.tableName(), outboxRepository.tableMetadata(),
+                outboxRepository::createTableIfNotExists));
+        tables.add(new ManagedTable(clientSummaryRepository.tableName(), clientSummaryRepository.tableMetadata(),
+                clientSummaryRepository::createTableIfNotExists));
+        tables.add(new ManagedTable(leaseRepository.tableName(), leaseRepository.tableMetadata(),
+                leaseRepository::createTableIfNotExists));
+        tables.add(new ManagedTable(documentRepository.tableName(), documentRepository.tableMetadata(),
+                documentRepository::createTableIfNotExists));
+    }
+
+    @PostConstruct
+    public void bootstrap() {
+        if ("none".equals(mode)) {
+            logger.info("Skipping DynamoDB schema bootstrap");
+            return;
+        }
+        if (!"create".equals(mode) && !"verify".equals(mode)) {
+            throw new IllegalStateException("app.dynamodb.schemaBootstrap must be create, verify or none, not " + mode);
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> checks = tables.stream()
+                .map(table -> CompletableFuture.runAsync(() -> ensureTable(table), serviceExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("DynamoDB schema bootstrap failed: " + cause.getMessage(), cause);
+        }
+        logger.info("DynamoDB schema checked ({}) in {} ms", mode, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void ensureTable(ManagedTable table) {
+        try {
+            TableDescription description = dynamoDbClient.describeTable(r -> r.tableName(table.name())).table();
+            verifyKeys(table, description);
+            logger.info("{} table is {}", table.name(), description.tableStatus());
+        } catch (ResourceNotFoundException e) {
+            if (!"create".equals(mode)) {
+                throw new IllegalStateException(table.name() + " table does not exist", e);
+            }
+            table.create().run();
+        }
+    }
+
+    // Extra indexes on the table are fine; every index the entity declares must exist with the same keys
+    private static void verifyKeys(ManagedTable table, TableDescription description) {
+        TableMetadata metadata = table.metadata();
+        List<String> problems = new ArrayList<>();
+
+        String expectedKeys = keys(metadata.primaryPartitionKey(), metadata.primarySortKey().orElse(null));
+        String actualKeys = keys(description.keySchema());
+        if (!expectedKeys.equals(actualKeys)) {
+            problems.add("key schema is " + actualKeys + ", expected " + expectedKeys);
+        }
+
+        Map<String, GlobalSecondaryIndexDescription> indexes = description.globalSecondaryIndexes().stream()
+                .collect(Collectors.toMap(GlobalSecondaryIndexDescription::indexName, Function.identity()));
+        for (IndexMetadata index : metadata.indices()) {
+            if (TableMetadata.primaryIndexName().equals(index.name())) {
+                continue;
+            }
+            String expected = keys(index.partitionKey().map(KeyAttributeMetadata::name).orElse(null),
+                    index.sortKey().map(KeyAttributeMetadata::name).orElse(null));
+            GlobalSecondaryIndexDescription actual = indexes.get(index.name());
+            if (actual == null) {
+                problems.add("index " + index.name() + " " + expected + " is missing");
+            } else if (!expected.equals(keys(actual.keySchema()))) {
+                problems.add("index " + index.name() + " is " + keys(actual.keySchema()) + ", expected " + expected);
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(table.name() + " table does not match the application: "
+                    + String.join("; ", problems));
+        }
+    }
+
+    private static String keys(List<KeySchemaElement> keySchema) {
+        return keys(keyNamed(keySchema, KeyType.HASH), keyNamed(keySchema, KeyType.RANGE));
+    }
+
+    private static String keyNamed(List<KeySchemaElement> keySchema, KeyType type) {
+        return keySchema.stream()
+                .filter(element -> element.keyType() == type)
+                .map(KeySchemaElement::attributeName)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String keys(String partitionKey, String sortKey) {
+        return sortKey == null ? "(" + partitionKey + ")" : "(" + partitionKey + ", " + sortKey + ")";
+    }
+
+    private record ManagedTable(String name, TableMetadata metadata, Runnable create) {
+    }
+}
@@ -4,39 +4,107 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.farhan.cloudtransaction.dto.PagedResult;
 import com.farhan.cloudtransaction.entity.Transaction;
 
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverterProvider;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import jakarta.annotation.PostConstruct;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class TransactionRepository {
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbEnhancedClient enhancedClient;
     private final DynamoDbTable<Transaction> transactionTable;
+    private final ClientSummaryRepository clientSummaryRepository;
+    private final ParallelScanner parallelScanner;
     private static final Logger logger = LoggerFactory.getLogger(TransactionRepository.class);
 
-    public TransactionRepository(DynamoDbClient dynamoDbClient) {
-        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+    // BatchWriteItem accepts at most 25 items per call
+    public static final int MAX_BATCH_SIZE = 25;
+    private static final int MAX_BATCH_RETRIES = 5;
+
+    // Same encoding the bean schema uses for LocalDateTime attributes, for hand-written update expressions
+    static final AttributeConverter<LocalDateTime> TIMESTAMP_CONVERTER =
+            AttributeConverterProvider.defaultProvider().converterFor(EnhancedType.of(LocalDateTime.class));
+
+    // Read-through cache for getTransaction; null when disabled. Entries are copies, never handed out directly.
+    private final Cache<String, Transaction> transactionCache;
+
+    @Value("${app.transactionCache.warmUp:false}")
+    private boolean warmUpCache;
+
+    public TransactionRepository(DynamoDbClient dynamoDbClient, ClientSummaryRepository clientSummaryRepository,
+            ParallelScanner parallelScanner, MeterRegistry meterRegistry,
+            @Value("${app.transactionCache.enabled:true}") boolean cacheEnabled,
+            @Value("${app.transactionCache.maximumSize:10000}") long cacheMaximumSize,
+            @Value("${app.transactionCache.ttl:PT1M}") Duration cacheTtl) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.enhancedClient = DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoDbClient)
                 .build();
 
         this.transactionTable = enhancedClient.table("Transactions", TableSchema.fromBean(Transaction.class));
+        this.clientSummaryRepository = clientSummaryRepository;
+        this.parallelScanner = parallelScanner;
+
+        if (cacheEnabled) {
+            // The TTL bounds how stale an entry can be when another instance updates the transaction
+            this.transactionCache = Caffeine.newBuilder()
+                    .maximumSize(cacheMaximumSize)
+                    .expireAfterWrite(cacheTtl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, transactionCache, "transactions");
+        } else {
+            this.transactionCache = null;
+        }
     }
 
-    @PostConstruct
     public void createTableIfNotExists() {
         try {
-            transactionTable.createTable(CreateTableEnhancedRequest.builder().build());
+            transactionTable.createTable(CreateTableEnhancedRequest.builder()
+                    .globalSecondaryIndices(EnhancedGlobalSecondaryIndex.builder()
+                            .indexName(Transaction.CLIENT_INDEX)
+                            .projection(p -> p.projectionType(ProjectionType.ALL))
+                            .build())
+                    .build());
             logger.info("Transactions table created successfully!");
         } catch (ResourceInUseException e) {
             logger.info("Transactions table already exists");
@@ -49,6 +117,7 @@ public class TransactionRepository {
     public void saveTransaction(Transaction transaction) {
         try {
             transactionTable.putItem(transaction);
+            invalidate(transaction.getTransactionId());
             logger.info("Transaction {} saved successfully!", transaction.getTransactionId());
         } catch (DynamoDbException e) {
             logger.error("Failed to save transaction {}: {}", transaction.getTransactionId(), e.getMessage());
@@ -56,7 +125,127 @@ public class TransactionRepository {
         }
     }
 
+    public void updateNotificationId(String transactionId, String notificationId) {
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(transactionTable.tableName())
+                    .key(key(transactionId))
+                    .updateExpression("SET notificationId = :notificationId, updatedAt = :now")
+                    .conditionExpression("attribute_exists(transactionId)")
+                    .expressionAttributeValues(Map.of(
+                            ":notificationId", AttributeValue.fromS(notificationId),
+                            ":now", timestamp(LocalDateTime.now())))
+                    .build());
+            invalidate(transactionId);
+            logger.info("Transaction {} linked to notification {}", transactionId, notificationId);
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn("Transaction with ID {} not found", transactionId);
+            throw new RuntimeException("Transaction not found: " + transactionId);
+        } catch (DynamoDbException e) {
+            logger.error("Failed to update transaction {}: {}", transactionId, e.getMessage());
+            throw new RuntimeException("Error saving transaction", e);
+        }
+    }
+
+    // Inserts a new transaction and counts it in the client's summary in one TransactWriteItems call
+    public void createTransaction(Transaction transaction) {
+        try {
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(
+                            TransactWriteItem.builder().put(Put.builder()
+                                    .tableName(transactionTable.tableName())
+                                    .item(transactionTable.tableSchema().itemToMap(transaction, true))
+                                    .conditionExpression("attribute_not_exists(transactionId)")
+                                    .build()).build(),
+                            TransactWriteItem.builder()
+                                    .update(clientSummaryRepository.transactionCreated(transaction.getClientId()))
+                                    .build())
+                    .build());
+            logger.info("Transaction {} created for client {}", transaction.getTransactionId(), transaction.getClientId());
+        } catch (DynamoDbException e) {
+            logger.error("Failed to create transaction {}: {}", transaction.getTransactionId(), e.getMessage());
+            throw new RuntimeException("Error saving transaction", e);
+        }
+    }
+
+    // Backfill for a transaction created before the client summaries existed: marks it counted and adds it to
+    // its client's summary in one TransactWriteItems call. False if it was counted or changed since it was read.
+    public boolean countInSummary(Transaction transaction) {
+        boolean completed = Boolean.TRUE.equals(transaction.getIsCompleted());
+        LocalDateTime activityAt = transaction.getUpdatedAt() != null ? transaction.getUpdatedAt() : transaction.getCreatedAt();
+        try {
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(
+                            TransactWriteItem.builder().update(Update.builder()
+                                    .tableName(transactionTable.tableName())
+                                    .key(key(transaction.getTransactionId()))
+                                    .updateExpression("SET summaryCounted = :true")
+                                    .conditionExpression("attribute_exists(transactionId) AND attribute_not_exists(summaryCounted)"
+                                            + " AND isCompleted = :completed")
+                                    .expressionAttributeValues(Map.of(
+                                            ":true", AttributeValue.fromBool(true),
+                                            ":completed", AttributeValue.fromBool(completed)))
+                                    .build()).build(),
+                            TransactWriteItem.builder()
+                                    .update(clientSummaryRepository.transactionBackfilled(transaction.getClientId(), completed,
+                                            activityAt != null ? activityAt : LocalDateTime.now()))
+                                    .build())
+                    .build());
+            invalidate(transaction.getTransactionId());
+            return true;
+        } catch (TransactionCanceledException e) {
+            logger.debug("Transaction {} already counted or changed during the summary backfill", transaction.getTransactionId());
+            return false;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to count transaction {} in its client summary: {}", transaction.getTransactionId(), e.getMessage());
+            throw new RuntimeException("Error updating client summary", e);
+        }
+    }
+
+    // Writes up to 25 transactions in one BatchWriteItem call, retrying unprocessed items with backoff.
+    // Returns the transactions that still could not be written.
+    public List<Transaction> saveTransactions(List<Transaction> transactions) {
+        if (transactions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " transactions per batch");
+        }
+        List<Transaction> pending = transactions;
+        try {
+            for (int attempt = 0; !pending.isEmpty() && attempt <= MAX_BATCH_RETRIES; attempt++) {
+                if (attempt > 0) {
+                    Thread.sleep(Math.min(1000L, 50L << attempt));
+                }
+                WriteBatch.Builder<Transaction> batch = WriteBatch.builder(Transaction.class)
+                        .mappedTableResource(transactionTable);
+                pending.forEach(batch::addPutItem);
+
+                BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                        .writeBatches(batch.build())
+                        .build());
+                pending = result.unprocessedPutItemsForTable(transactionTable);
+            }
+            transactions.forEach(transaction -> invalidate(transaction.getTransactionId()));
+            if (!pending.isEmpty()) {
+                logger.warn("{} transactions left unprocessed after {} retries", pending.size(), MAX_BATCH_RETRIES);
+            }
+            return pending;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return pending;
+        } catch (DynamoDbException e) {
+            logger.error("Failed to batch save {} transactions: {}", pending.size(), e.getMessage());
+            throw new RuntimeException("Error saving transactions", e);
+        }
+    }
+
     public Transaction getTransaction(String transactionId) {
+        if (transactionCache == null) {
+            return loadTransaction(transactionId);
+        }
+        // Concurrent misses for the same ID wait on a single load instead of each calling DynamoDB
+        return new Transaction(transactionCache.get(transactionId, this::loadTransaction));
+    }
+
+    private Transaction loadTransaction(String transactionId) {
         try {
             Transaction transaction = transactionTable.getItem(Key.builder().partitionValue(transactionId).build());
             if (transaction == null) {
@@ -69,21 +258,123 @@ public class TransactionRepository {
             throw new RuntimeException("Database error", e);
         }
     }
+
+    // Strongly consistent and uncached, for deciding whether a file is really attached after a failed write
+    public String getAttachedFileKey(String transactionId) {
+        try {
+            Transaction transaction = transactionTable.getItem(GetItemEnhancedRequest.builder()
+                    .key(Key.builder().partitionValue(transactionId).build())
+                    .consistentRead(true)
+                    .build());
+            return transaction == null ? null : transaction.getFileKey();
+        } catch (DynamoDbException e) {
+            logger.error("DynamoDB Error while fetching transaction {}: {}", transactionId, e.getMessage());
+            throw new RuntimeException("Database error", e);
+        }
+    }
+
+    // Also called by UploadCompletionRepository, whose transactional writes bypass this repository
+    public void invalidate(String transactionId) {
+        if (transactionCache != null) {
+            transactionCache.invalidate(transactionId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        if (transactionCache == null || !warmUpCache) {
+            return;
+        }
+        try {
+            long maximumSize = transactionCache.policy().eviction()
+                    .map(eviction -> eviction.getMaximum())
+                    .orElse(Long.MAX_VALUE);
+            forEachIncompleteTransactionPage(page -> page.forEach(transaction -> {
+                if (transactionCache.estimatedSize() < maximumSize) {
+                    transactionCache.asMap().putIfAbsent(transaction.getTransactionId(), transaction);
+                }
+            }));
+            logger.info("Transaction cache warmed with {} open transactions", transactionCache.estimatedSize());
+        } catch (RuntimeException e) {
+            logger.warn("Transaction cache warm-up failed: {}", e.getMessage());
+        }
+    }
     
-    public List<Transaction> getTransactionsByClientId(String clientId) {
+    public PagedResult<Transaction> getTransactionsByClientId(String clientId, int limit, String cursor) {
         try {
-            List<Transaction> transactions = new ArrayList<>();
-            transactionTable.scan(ScanEnhancedRequest.builder().build())
-                .items()
-                .forEach(transaction -> {
-                    if (clientId.equals(transaction.getClientId())) {
-                        transactions.add(transaction);
-                    }
-                });
-            return transactions;
+            Iterator<Page<Transaction>> pages = queryByClientId(clientId, limit, cursor).iterator();
+            if (!pages.hasNext()) {
+                return new PagedResult<>(Collections.emptyList(), null);
+            }
+
+            Page<Transaction> page = pages.next();
+            return new PagedResult<>(page.items(), PageCursor.encode(page.lastEvaluatedKey()));
         } catch (DynamoDbException e) {
             logger.error("Error fetching transactions for client {}: {}", clientId, e.getMessage());
             throw new RuntimeException("Error fetching transactions", e);
         }
     }
+
+    public void forEachTransactionPageByClientId(String clientId, int pageSize, String cursor,
+            Consumer<PagedResult<Transaction>> pageConsumer) {
+        try {
+            // Pages are fetched lazily, so only one page is held in memory at a time
+            for (Page<Transaction> page : queryByClientId(clientId, pageSize, cursor)) {
+                pageConsumer.accept(new PagedResult<>(page.items(), PageCursor.encode(page.lastEvaluatedKey())));
+            }
+        } catch (DynamoDbException e) {
+            logger.error("Error streaming transactions for client {}: {}", clientId, e.getMessage());
+            throw new RuntimeException("Error fetching transactions", e);
+        }
+    }
+
+    // Pages arrive concurrently from several scan segments, so the consumer must be thread-safe
+    public void forEachIncompleteTransactionPage(Consumer<List<Transaction>> pageConsumer) {
+        scanTransactions(Expression.builder()
+                .expression("isCompleted = :completed")
+                .putExpressionValue(":completed", AttributeValue.builder().bool(false).build())
+                .build(), pageConsumer);
+    }
+
+    // Full-table sweep for reports and admin jobs; a null filter reads every transaction
+    public ParallelScanner.Result scanTransactions(Expression filter, Consumer<List<Transaction>> pageConsumer) {
+        try {
+            return parallelScanner.scan(tableName(), transactionTable::scan,
+                    ScanEnhancedRequest.builder().filterExpression(filter).build(), pageConsumer);
+        } catch (DynamoDbException e) {
+            logger.error("Error scanning transactions: {}", e.getMessage());
+            throw new RuntimeException("Error fetching transactions", e);
+        }
+    }
+
+    String tableName() {
+        return transactionTable.tableName();
+    }
+
+    TableMetadata tableMetadata() {
+        return transactionTable.tableSchema().tableMetadata();
+    }
+
+    static Map<String, AttributeValue> key(String transactionId) {
+        return Map.of("transactionId", AttributeValue.fromS(transactionId));
+    }
+
+    static AttributeValue timestamp(LocalDateTime dateTime) {
+        return TIMESTAMP_CONVERTER.transformFrom(dateTime);
+    }
+
+    private SdkIterable<Page<Transaction>> queryByClientId(String clientId, int pageSize, String cursor) {
+        return transactionTable.index(Transaction.CLIENT_INDEX).query(clientPageRequest(clientId, pageSize, cursor));
+    }
+
+    // Query of the clientId/createdAt index, newest first; shared with AsyncTransactionRepository.
+    // Throws IllegalArgumentException for a cursor that was not issued by this service.
+    static QueryEnhancedRequest clientPageRequest(String clientId, int pageSize, String cursor) {
+        return QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(clientId)))
+                .scanIndexForward(false)
+                .limit(pageSize)
+                .exclusiveStartKey(PageCursor.decode(cursor))
+                .build();
+    }
 }
@@ -0,0 +1,110 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import org.springframework.stereotype.Repository;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commits an upload in one TransactWriteItems call: the transaction is completed with
+ * its file (and the name and type it was uploaded with), the notification that requested it is resolved and the client's summary
+ * counters move from open to completed, or none of it happens.
+ */
+@Repository
+public class UploadCompletionRepository {
+    private final DynamoDbClient dynamoDbClient;
+    private final TransactionRepository transactionRepository;
+    private final NotificationRepository notificationRepository;
+    private final ClientSummaryRepository clientSummaryRepository;
+    private static final Logger logger = LoggerFactory.getLogger(UploadCompletionRepository.class);
+
+    public UploadCompletionRepository(DynamoDbClient dynamoDbClient, TransactionRepository transactionRepository,
+            NotificationRepository notificationRepository, ClientSummaryRepository clientSummaryRepository) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.transactionRepository = transactionRepository;
+        this.notificationRepository = notificationRepository;
+        this.clientSummaryRepository = clientSummaryRepository;
+    }
+
+    // counted is the transaction's summaryCounted flag as read by the caller; an uncounted transaction
+    // is counted by this write, and the condition fails if the backfill counted it in the meantime
+    public void completeUpload(String transactionId, String clientId, boolean counted, String notificationId, String fileKey,
+            String fileName, String contentType) {
+        Update completeTransaction = Update.builder()
+                .tableName(transactionRepository.tableName())
+                .key(TransactionRepository.key(transactionId))
+                .updateExpression("SET fileKey = :fileKey, fileName = :fileName, fileContentType = :fileContentType, "
+                        + "isCompleted = :true, updatedAt = :now, summaryCounted = :true")
+                .conditionExpression(counted
+                        ? "attribute_exists(transactionId) AND isCompleted <> :true"
+                        : "attribute_exists(transactionId) AND isCompleted <> :true AND attribute_not_exists(summaryCounted)")
+                .expressionAttributeValues(Map.of(
+                        ":fileKey", AttributeValue.fromS(fileKey),
+                        ":fileName", AttributeValue.fromS(fileName),
+                        ":fileContentType", AttributeValue.fromS(contentType),
+                        ":true", AttributeValue.fromBool(true),
+                        ":now", TransactionRepository.timestamp(LocalDateTime.now())))
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+
+        // Dropping pendingShard takes the notification out of the overdue reminder index
+        Update resolveNotification = Update.builder()
+                .tableName(notificationRepository.tableName())
+                .key(Map.of("notificationId", AttributeValue.fromS(notificationId)))
+                .updateExpression("SET isResolved = :true REMOVE pendingShard")
+                .conditionExpression("attribute_exists(notificationId) AND isResolved <> :true")
+                .expressionAttributeValues(Map.of(":true", AttributeValue.fromBool(true)))
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+
+        try {
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(
+                            TransactWriteItem.builder().update(completeTransaction).build(),
+                            TransactWriteItem.builder().update(resolveNotification).build(),
+                            TransactWriteItem.builder().update(clientSummaryRepository.transactionCompleted(clientId, counted)).build())
+                    .build());
+            logger.info("Transaction {} completed with file {} and notification {} resolved",
+                    transactionId, fileKey, notificationId);
+        } catch (TransactionCanceledException e) {
+            logger.warn("Upload completion for transaction {} cancelled: {}", transactionId, e.getMessage());
+            throw new RuntimeException(cancellationMessage(e.cancellationReasons(), transactionId, notificationId), e);
+        } catch (DynamoDbException e) {
+            logger.error("Failed to complete upload for transaction {}: {}", transactionId, e.getMessage());
+            throw new RuntimeException("Error saving transaction", e);
+        } finally {
+            // Invalidate even on failure: the transaction may have been completed by another writer
+            transactionRepository.invalidate(transactionId);
+        }
+    }
+
+    // Reasons are positional, matching the order of the items in the request
+    private static String cancellationMessage(List<CancellationReason> reasons, String transactionId, String notificationId) {
+        if (reasons.size() >= 2) {
+            CancellationReason transactionReason = reasons.get(0);
+            CancellationReason notificationReason = reasons.get(1);
+            if ("ConditionalCheckFailed".equals(transactionReason.code())) {
+                if (!transactionReason.hasItem() || transactionReason.item().isEmpty()) {
+                    return "Transaction not found: " + transactionId;
+                }
+                AttributeValue completed = transactionReason.item().get("isCompleted");
+                return completed != null && Boolean.TRUE.equals(completed.bool())
+                        ? "Transaction is already completed: " + transactionId
+                        : "Upload could not be committed, please retry";
+            }
+            if ("ConditionalCheckFailed".equals(notificationReason.code())) {
+                return notificationReason.hasItem() && !notificationReason.item().isEmpty()
+                        ? "A file has already been uploaded for this request"
+                        : "Notification not found: " + notificationId;
+            }
+        }
+        return "Upload could not be committed, please retry";
+    }
+}
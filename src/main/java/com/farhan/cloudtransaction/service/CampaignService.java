@@ -0,0 +1,208 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.dto.CampaignStatus;
+import com.farhan.cloudtransaction.dto.CreateCampaignRequest;
+import com.farhan.cloudtransaction.dto.SendNotificationRequest;
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs bulk reminder campaigns as background jobs, capped by a per-job parallelism limit.
+ * A send only records the notification and queues its email in the outbox, so "sent" means
+ * queued for delivery; the outbox paces the actual emails to the SES sending rate.
+ * Job state is kept in memory on the instance that started the campaign.
+ */
+@Service
+public class CampaignService {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private static final Logger logger = LoggerFactory.getLogger(CampaignService.class);
+
+    private static final int MAX_RECENT_FAILURES = 100;
+
+    @Value("${app.campaign.workers:8}")
+    private int workers;
+
+    @Value("${app.campaign.defaultParallelism:4}")
+    private int defaultParallelism;
+
+    @Value("${app.campaign.retention:PT24H}")
+    private Duration retention;
+
+    private ExecutorService runners;
+    private ExecutorService senders;
+    private final Map<String, CampaignJob> jobs = new ConcurrentHashMap<>();
+
+    public CampaignService(TransactionService transactionService, TransactionRepository transactionRepository) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        runners = Executors.newCachedThreadPool();
+        senders = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    public CampaignStatus startCampaign(CreateCampaignRequest request) {
+        pruneFinishedJobs();
+        int parallelism = Math.min(workers, request.parallelism() != null ? request.parallelism() : defaultParallelism);
+        CampaignJob job = new CampaignJob(UUID.randomUUID().toString(), parallelism);
+        jobs.put(job.id, job);
+        runners.execute(() -> run(job, request));
+        logger.info("Started campaign {} with parallelism {}", job.id, parallelism);
+        return job.status();
+    }
+
+    public CampaignStatus getCampaignStatus(String campaignId) {
+        CampaignJob job = jobs.get(campaignId);
+        if (job == null) {
+            throw new RuntimeException("Campaign not found: " + campaignId);
+        }
+        return job.status();
+    }
+
+    public List<CampaignStatus> getCampaigns() {
+        return jobs.values().stream().map(CampaignJob::status).toList();
+    }
+
+    private void run(CampaignJob job, CreateCampaignRequest request) {
+        try {
+            if (request.transactionIds() != null && !request.transactionIds().isEmpty()) {
+                for (String transactionId : request.transactionIds()) {
+                    submit(job, transactionId, request, true);
+                }
+            } else if (request.clientId() != null && !request.clientId().isBlank()) {
+                transactionRepository.forEachTransactionPageByClientId(request.clientId(), 100, null,
+                        page -> submitIncomplete(job, page.items(), request));
+            } else {
+                transactionRepository.forEachIncompleteTransactionPage(
+                        page -> submitIncomplete(job, page, request));
+            }
+            // Wait for in-flight sends before marking the job done
+            job.permits.acquire(job.parallelism);
+            job.finish("COMPLETED");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish("CANCELLED");
+        } catch (RuntimeException e) {
+            logger.error("Campaign {} failed: {}", job.id, e.getMessage());
+            job.finish("FAILED");
+        }
+        logger.info("Campaign {} finished: {} sent, {} skipped, {} failed",
+                job.id, job.sent.get(), job.skipped.get(), job.failed.get());
+    }
+
+    private void submitIncomplete(CampaignJob job, List<Transaction> transactions, CreateCampaignRequest request) {
+        for (Transaction transaction : transactions) {
+            if (!Boolean.TRUE.equals(transaction.getIsCompleted())) {
+                submit(job, transaction.getTransactionId(), request, false);
+            }
+        }
+    }
+
+    // Explicitly listed transactions have not been read yet, so checkCompleted skips the ones already completed
+    private void submit(CampaignJob job, String transactionId, CreateCampaignRequest request, boolean checkCompleted) {
+        try {
+            job.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Campaign interrupted", e);
+        }
+        job.queued.incrementAndGet();
+        senders.execute(() -> {
+            try {
+                if (checkCompleted && Boolean.TRUE.equals(transactionRepository.getTransaction(transactionId).getIsCompleted())) {
+                    job.skipped.incrementAndGet();
+                    return;
+                }
+                transactionService.sendNotification(new SendNotificationRequest(transactionId, request.subject(), request.message()));
+                job.sent.incrementAndGet();
+            } catch (Exception e) {
+                job.recordFailure(transactionId, e.getMessage());
+            } finally {
+                job.permits.release();
+            }
+        });
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static class CampaignJob {
+        private final String id;
+        private final int parallelism;
+        private final Semaphore permits;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Deque<CampaignStatus.CampaignFailure> recentFailures = new ArrayDeque<>();
+        private volatile String state = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        CampaignJob(String id, int parallelism) {
+            this.id = id;
+            this.parallelism = parallelism;
+            this.permits = new Semaphore(parallelism);
+        }
+
+        void recordFailure(String transactionId, String error) {
+            failed.incrementAndGet();
+            synchronized (recentFailures) {
+                recentFailures.addLast(new CampaignStatus.CampaignFailure(transactionId, error));
+                if (recentFailures.size() > MAX_RECENT_FAILURES) {
+                    recentFailures.removeFirst();
+                }
+            }
+        }
+
+        void finish(String finalState) {
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        CampaignStatus status() {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            double elapsedSeconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+            List<CampaignStatus.CampaignFailure> failures;
+            synchronized (recentFailures) {
+                failures = new ArrayList<>(recentFailures);
+            }
+            return new CampaignStatus(id, state, queued.get(), sent.get(), skipped.get(), failed.get(),
+                    sent.get() / elapsedSeconds, startedAt, finishedAt, failures);
+        }
+    }
+}
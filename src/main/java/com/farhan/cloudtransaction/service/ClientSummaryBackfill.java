@@ -0,0 +1,97 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.LeaseRepository;
+import com.farhan.cloudtransaction.repo.ParallelScanner;
+import com.farhan.cloudtransaction.repo.TransactionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-off sweep that adds transactions created before the client summaries existed to their
+ * client's counters. Each transaction is marked {@code summaryCounted} in the same write that
+ * counts it, so the sweep can be rerun safely; transactions that change while it runs are
+ * skipped and picked up by the next run. Enable it with {@code app.clientSummaries.backfill.enabled}
+ * for one deploy and turn it off again once it logs that nothing was left to count.
+ */
+@Service
+public class ClientSummaryBackfill {
+
+    private static final String LEASE_NAME = "client-summary-backfill";
+
+    private final TransactionRepository transactionRepository;
+    private final LeaseRepository leaseRepository;
+    private final ExecutorService serviceExecutor;
+    private final String owner = UUID.randomUUID().toString();
+    private static final Logger logger = LoggerFactory.getLogger(ClientSummaryBackfill.class);
+
+    @Value("${app.clientSummaries.backfill.enabled:false}")
+    private boolean enabled;
+
+    // Held for the whole sweep, so it must exceed the time to scan the Transactions table
+    @Value("${app.clientSummaries.backfill.leaseDuration:PT1H}")
+    private Duration leaseDuration;
+
+    public ClientSummaryBackfill(TransactionRepository transactionRepository, LeaseRepository leaseRepository,
+            ExecutorService serviceExecutor) {
+        this.transactionRepository = transactionRepository;
+        this.leaseRepository = leaseRepository;
+        this.serviceExecutor = serviceExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (enabled) {
+            serviceExecutor.execute(this::backfill);
+        }
+    }
+
+    public void backfill() {
+        try {
+            if (!leaseRepository.tryAcquire(LEASE_NAME, owner, leaseDuration)) {
+                logger.info("Client summary backfill is running on another instance");
+                return;
+            }
+        } catch (Exception e) {
+            logger.error("Error acquiring client summary backfill lease: {}", e.getMessage());
+            return;
+        }
+
+        AtomicLong counted = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        try {
+            ParallelScanner.Result result = transactionRepository.scanTransactions(Expression.builder()
+                    .expression("attribute_not_exists(summaryCounted)")
+                    .build(), page -> page.forEach(transaction -> count(transaction, counted, skipped)));
+            logger.info("Client summary backfill counted {} transactions and skipped {} out of {} uncounted in {} ms",
+                    counted.get(), skipped.get(), result.items(), result.elapsed().toMillis());
+        } catch (Exception e) {
+            logger.error("Client summary backfill stopped after counting {} transactions: {}", counted.get(), e.getMessage());
+        } finally {
+            leaseRepository.release(LEASE_NAME, owner);
+        }
+    }
+
+    private void count(Transaction transaction, AtomicLong counted, AtomicLong skipped) {
+        if (transaction.getClientId() == null) {
+            skipped.incrementAndGet();
+            return;
+        }
+        if (transactionRepository.countInSummary(transaction)) {
+            counted.incrementAndGet();
+        } else {
+            skipped.incrementAndGet();
+        }
+    }
+}
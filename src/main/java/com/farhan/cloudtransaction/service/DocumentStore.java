@@ -0,0 +1,107 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.StoredDocument;
+import com.farhan.cloudtransaction.repo.DocumentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stores uploaded documents in S3 under a key derived from the SHA-256 of their content,
+ * so repeated uploads of the same file share one object and skip the S3 upload entirely.
+ * Shared objects are reference counted in the Documents table.
+ */
+@Service
+public class DocumentStore {
+
+    static final String KEY_PREFIX = "sha256/";
+
+    private final S3Service s3Service;
+    private final DocumentRepository documentRepository;
+    private final Counter deduplicatedCounter;
+    private final Counter deduplicatedBytes;
+    private static final Logger logger = LoggerFactory.getLogger(DocumentStore.class);
+
+    @Value("${app.documents.dedup.enabled:true}")
+    private boolean dedupEnabled;
+
+    public DocumentStore(S3Service s3Service, DocumentRepository documentRepository, MeterRegistry meterRegistry) {
+        this.s3Service = s3Service;
+        this.documentRepository = documentRepository;
+        this.deduplicatedCounter = meterRegistry.counter("documents.deduplicated");
+        this.deduplicatedBytes = meterRegistry.counter("documents.deduplicated.bytes");
+    }
+
+    // Returns the S3 key of the stored document; the caller owns one reference to it
+    public String store(MultipartFile file) {
+        if (!dedupEnabled) {
+            return s3Service.uploadFile(file);
+        }
+
+        // Multipart uploads are spooled to disk, so hashing first costs a local read rather than a second upload
+        String contentHash = sha256(file);
+        String key = KEY_PREFIX + contentHash;
+        StoredDocument document = documentRepository.acquire(contentHash);
+        if (document == null) {
+            // The previous copy is being deleted right now, so this upload gets its own object
+            return s3Service.uploadFile(file);
+        }
+        if (Boolean.TRUE.equals(document.getStored())) {
+            deduplicatedCounter.increment();
+            deduplicatedBytes.increment(file.getSize());
+            logger.info("Document {} already stored, skipping upload ({} references)", key, document.getRefCount());
+            return key;
+        }
+
+        try {
+            // Concurrent first uploads of the same content may both get here; they write identical bytes
+            s3Service.uploadFile(file, key);
+            documentRepository.markStored(contentHash, file.getSize(), file.getContentType());
+            return key;
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+    }
+
+    // Drops one reference and deletes the object once nothing refers to it.
+    // Failures are logged rather than thrown, since callers release while handling another error.
+    public void release(String key) {
+        if (key == null || !key.startsWith(KEY_PREFIX)) {
+            // Per-upload objects from before deduplication (or while it is disabled) are not reference counted
+            return;
+        }
+        String contentHash = key.substring(KEY_PREFIX.length());
+        try {
+            if (documentRepository.release(contentHash)) {
+                s3Service.deleteFile(key);
+                documentRepository.delete(contentHash);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to release document {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static String sha256(MultipartFile file) {
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.error("Failed to hash uploaded file: {}", e.getMessage());
+            throw new RuntimeException("Failed to upload file", e);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.OutboxEmail;
+import com.farhan.cloudtransaction.repo.OutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable email outbox. Emails are persisted before the request returns and delivered
+ * to SES by a background worker pool, so API latency does not depend on SES.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final SesClient sesClient;
+    private final OutboxRepository outboxRepository;
+    private final MeterRegistry meterRegistry;
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    // Writes of the SENT status before giving up; together with their backoff they must fit in the lease
+    private static final int RECORD_SENT_WRITES = 3;
+
+    @Value("${aws.ses.senderEmail}")
+    private String senderEmail;
+
+    @Value("${app.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.outbox.queueCapacity:1000}")
+    private int queueCapacity;
+
+    // SES sandbox accounts allow 1 email/second, production accounts start at 14
+    @Value("${app.outbox.maxSendRate:14}")
+    private double maxSendRate;
+
+    @Value("${app.outbox.maxAttempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.baseBackoffMs:2000}")
+    private long baseBackoffMs;
+
+    @Value("${app.outbox.maxBackoffMs:900000}")
+    private long maxBackoffMs;
+
+    // Longer than the slowest SES call including SDK retries; another worker may claim the email once it passes
+    @Value("${app.outbox.leaseDuration:PT2M}")
+    private Duration leaseDuration;
+
+    @Value("${app.outbox.batchSize:100}")
+    private int batchSize;
+
+    private ThreadPoolExecutor executor;
+    private RateLimiter rateLimiter;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger dueDepth = new AtomicInteger();
+    private final AtomicLong oldestDueAgeSeconds = new AtomicLong();
+
+    private Timer sendLag;
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter failedCounter;
+    private Counter throttledCounter;
+    private Counter unrecordedCounter;
+
+    public EmailOutboxService(SesClient sesClient, OutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.sesClient = sesClient;
+        this.outboxRepository = outboxRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        rateLimiter = new RateLimiter(maxSendRate);
+
+        Gauge.builder("outbox.depth", inFlight, Set::size)
+                .description("Outbox emails queued or being sent on this instance")
+                .register(meterRegistry);
+        Gauge.builder("outbox.due", dueDepth, AtomicInteger::get)
+                .description("Due outbox emails found by the last poll (capped at the batch size)")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.due.age", oldestDueAgeSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest due email found by the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        sendLag = Timer.builder("outbox.send.lag")
+                .description("Time from enqueue to successful SES delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("outbox.sent");
+        retryCounter = meterRegistry.counter("outbox.retries");
+        failedCounter = meterRegistry.counter("outbox.failed");
+        throttledCounter = meterRegistry.counter("outbox.throttled");
+        // Sent by SES but not marked as sent in DynamoDB; each one may be delivered twice
+        unrecordedCounter = meterRegistry.counter("outbox.sent.unrecorded");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unsent emails stay pending in DynamoDB and are picked up after restart
+        executor.shutdown();
+    }
+
+    public OutboxEmail enqueue(String recipientEmail, String subject, String body, String notificationId) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEmail email = new OutboxEmail();
+        email.setEmailId(UUID.randomUUID().toString());
+        email.setNotificationId(notificationId);
+        email.setRecipientEmail(recipientEmail);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(OutboxEmail.STATUS_PENDING);
+        email.setPendingShard(OutboxEmail.PENDING);
+        email.setNextAttemptAt(now);
+        email.setAttempts(0);
+        email.setCreatedAt(now);
+
+        outboxRepository.saveEmail(email);
+        dispatch(email);
+        logger.info("Queued email {} to {}", email.getEmailId(), recipientEmail);
+        return email;
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.pollMs:5000}", fixedDelayString = "${app.outbox.pollMs:5000}")
+    public void drainDueEmails() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEmail> due = outboxRepository.findDueEmails(now, batchSize);
+            dueDepth.set(due.size());
+            oldestDueAgeSeconds.set(due.stream()
+                    .map(OutboxEmail::getCreatedAt)
+                    .filter(createdAt -> createdAt != null)
+                    .min(LocalDateTime::compareTo)
+                    .map(createdAt -> Duration.between(createdAt, now).getSeconds())
+                    .orElse(0L));
+            due.forEach(this::dispatch);
+        } catch (Exception e) {
+            logger.error("Error polling email outbox: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(OutboxEmail email) {
+        if (!inFlight.add(email.getEmailId())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    deliver(email);
+                } catch (Exception e) {
+                    logger.error("Unexpected error delivering email {}: {}", email.getEmailId(), e.getMessage());
+                } finally {
+                    inFlight.remove(email.getEmailId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full; the email is durable and the next poll will retry it
+            inFlight.remove(email.getEmailId());
+        }
+    }
+
+    // Package-private so tests can drive a single delivery without the worker pool
+    void deliver(OutboxEmail email) throws InterruptedException {
+        // Wait for the send slot before claiming, so the lease only has to cover the SES call itself
+        rateLimiter.acquire();
+
+        int attempts = email.getAttempts() == null ? 0 : email.getAttempts();
+        int attempt = attempts + 1;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(leaseDuration);
+        email.setAttempts(attempt);
+        email.setLeaseUntil(leaseUntil);
+        // Keeps the email out of other pollers' due query until the lease has run out
+        email.setNextAttemptAt(leaseUntil);
+        if (!outboxRepository.claimEmail(email, attempts, now)) {
+            return;
+        }
+
+        // Only the SES call may lead to a retry; once SES has accepted the email it must never be sent again
+        try {
+            sesClient.sendEmail(buildRequest(email));
+        } catch (MessageRejectedException e) {
+            // SES will never accept this message, so retrying is pointless
+            markFailed(email, e.getMessage());
+            return;
+        } catch (SesException e) {
+            if (e.isThrottlingException() || "Throttling".equals(e.awsErrorDetails().errorCode())) {
+                throttledCounter.increment();
+                rateLimiter.pause(backoff(1));
+                logger.warn("SES throttled email {}, slowing down", email.getEmailId());
+            }
+            recordFailedAttempt(email, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            recordFailedAttempt(email, e.getMessage());
+            return;
+        }
+        recordSent(email, attempt);
+    }
+
+    // Retries the SENT write within the lease. If it still fails, the email stays claimed and another
+    // worker may send it again once the lease runs out, so that case is counted for alerting.
+    private void recordSent(OutboxEmail email, int attempt) throws InterruptedException {
+        LocalDateTime sentAt = LocalDateTime.now();
+        email.setStatus(OutboxEmail.STATUS_SENT);
+        email.setPendingShard(null);
+        email.setNextAttemptAt(null);
+        email.setLeaseUntil(null);
+        email.setLastError(null);
+        email.setSentAt(sentAt);
+        for (int write = 1; ; write++) {
+            try {
+                if (!outboxRepository.completeAttempt(email, attempt)) {
+                    logger.warn("Email {} was sent after its lease expired and another worker had claimed it", email.getEmailId());
+                    return;
+                }
+                break;
+            } catch (RuntimeException e) {
+                if (write >= RECORD_SENT_WRITES) {
+                    unrecordedCounter.increment();
+                    logger.error("Email {} was sent but could not be marked as sent after {} writes; "
+                            + "it may be sent again once its lease expires: {}", email.getEmailId(), write, e.getMessage());
+                    return;
+                }
+                logger.warn("Failed to mark email {} as sent, retrying: {}", email.getEmailId(), e.getMessage());
+                Thread.sleep(backoff(write).toMillis());
+            }
+        }
+
+        sentCounter.increment();
+        if (email.getCreatedAt() != null) {
+            sendLag.record(Duration.between(email.getCreatedAt(), sentAt));
+        }
+        logger.info("Email {} sent to {}", email.getEmailId(), email.getRecipientEmail());
+    }
+
+    private void recordFailedAttempt(OutboxEmail email, String error) {
+        if (email.getAttempts() >= maxAttempts) {
+            markFailed(email, error);
+            return;
+        }
+        // The email stays pending and becomes due again once the backoff has passed
+        email.setNextAttemptAt(LocalDateTime.now().plus(backoff(email.getAttempts())));
+        email.setLeaseUntil(null);
+        email.setLastError(error);
+        if (!outboxRepository.completeAttempt(email, email.getAttempts())) {
+            return;
+        }
+        retryCounter.increment();
+        logger.warn("Email {} attempt {} failed, retrying at {}: {}",
+                email.getEmailId(), email.getAttempts(), email.getNextAttemptAt(), error);
+    }
+
+    private void markFailed(OutboxEmail email, String error) {
+        email.setStatus(OutboxEmail.STATUS_FAILED);
+        email.setPendingShard(null);
+        email.setNextAttemptAt(null);
+        email.setLeaseUntil(null);
+        email.setLastError(error);
+        if (!outboxRepository.completeAttempt(email, email.getAttempts())) {
+            return;
+        }
+        failedCounter.increment();
+        logger.error("Email {} to {} failed permanently after {} attempts: {}",
+                email.getEmailId(), email.getRecipientEmail(), email.getAttempts(), error);
+    }
+
+    private Duration backoff(int attempt) {
+        long exponential = baseBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMs, exponential);
+        // +/-20% jitter so retries from a throttling burst don't line up again
+        long jitter = (long) (capped * (ThreadLocalRandom.current().nextDouble(0.4) - 0.2));
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private SendEmailRequest buildRequest(OutboxEmail email) {
+        Destination destination = Destination.builder()
+                .toAddresses(email.getRecipientEmail())
+                .build();
+
+        Message emailMessage = Message.builder()
+                .subject(Content.builder().data(email.getSubject()).build())
+                .body(Body.builder().text(Content.builder().data(email.getBody()).build()).build())
+                .build();
+
+        return SendEmailRequest.builder()
+                .source(senderEmail)
+                .destination(destination)
+                .message(emailMessage)
+                .build();
+    }
+}
@@ -4,8 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.ses.SesClient;
-import software.amazon.awssdk.services.ses.model.*;
 
 import com.farhan.cloudtransaction.entity.Notification;
 import com.farhan.cloudtransaction.repo.NotificationRepository;
@@ -16,25 +14,25 @@ import java.util.UUID;
 @Service
 public class NotificationService {
 
-    private final SesClient sesClient;
+    private final EmailOutboxService emailOutboxService;
     private final NotificationRepository notificationRepository;
+    private final UploadTokenSigner uploadTokenSigner;
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
-
-    @Value("${aws.ses.senderEmail}")
-    private String senderEmail;
     
     @Value("${app.baseUrl}")
     private String baseUrl;
 
-    public NotificationService(SesClient sesClient, NotificationRepository notificationRepository) {
-        this.sesClient = sesClient;
+    public NotificationService(EmailOutboxService emailOutboxService, NotificationRepository notificationRepository,
+            UploadTokenSigner uploadTokenSigner) {
+        this.emailOutboxService = emailOutboxService;
         this.notificationRepository = notificationRepository;
+        this.uploadTokenSigner = uploadTokenSigner;
     }
 
     public Notification sendEmailNotification(String recipientEmail, String transactionId, String subject, String messageBody) {
         try {
-            // Create a unique upload token
-            String uploadToken = UUID.randomUUID().toString();
+            // Create a unique, signed upload token
+            String uploadToken = uploadTokenSigner.mint();
             
             // Create upload URL
             String uploadUrl = baseUrl + "/upload/" + uploadToken;
@@ -52,28 +50,16 @@ public class NotificationService {
             notification.setSentAt(LocalDateTime.now());
             notification.setUploadToken(uploadToken);
             notification.setIsResolved(false);
+            notification.setPendingShard(Notification.pendingShard(notification.getNotificationId()));
+            notification.setReminderCount(0);
+            notification.setLastReminderAt(notification.getSentAt());
             
             // Save notification first
             notificationRepository.saveNotification(notification);
             
-            // Send email
-            Destination destination = Destination.builder()
-                    .toAddresses(recipientEmail)
-                    .build();
-
-            Message emailMessage = Message.builder()
-                    .subject(Content.builder().data(subject).build())
-                    .body(Body.builder().text(Content.builder().data(fullMessage).build()).build())
-                    .build();
-
-            SendEmailRequest emailRequest = SendEmailRequest.builder()
-                    .source(senderEmail)
-                    .destination(destination)
-                    .message(emailMessage)
-                    .build();
-
-            sesClient.sendEmail(emailRequest);
-            logger.info("Email notification sent to {} for transaction {}", recipientEmail, transactionId);
+            // Queue email; the outbox delivers it to SES in the background
+            emailOutboxService.enqueue(recipientEmail, subject, fullMessage, notification.getNotificationId());
+            logger.info("Email notification queued for {} for transaction {}", recipientEmail, transactionId);
             
             return notification;
         } catch (Exception e) {
@@ -82,29 +68,26 @@ public class NotificationService {
         }
     }
     
+    // Sends the original request again with the same upload link; the caller has already claimed the reminder
+    public void sendReminder(Notification notification) {
+        try {
+            emailOutboxService.enqueue(notification.getRecipientEmail(), "Reminder: " + notification.getSubject(),
+                    notification.getMessage(), notification.getNotificationId());
+            logger.info("Reminder queued for {} for transaction {}", notification.getRecipientEmail(), notification.getTransactionId());
+        } catch (Exception e) {
+            logger.error("Failed to send reminder for notification {}: {}", notification.getNotificationId(), e.getMessage());
+            throw new RuntimeException("Failed to send reminder", e);
+        }
+    }
+
     public void sendAccountantNotification(String accountantEmail, String transactionId, String fileKey, String downloadUrl) {
         try {
             String subject = "Document Uploaded for Transaction " + transactionId;
             String message = "A document has been uploaded for transaction " + transactionId + ".\n\n" +
                     "You can download the document using this link: " + downloadUrl;
-            
-            Destination destination = Destination.builder()
-                    .toAddresses(accountantEmail)
-                    .build();
-
-            Message emailMessage = Message.builder()
-                    .subject(Content.builder().data(subject).build())
-                    .body(Body.builder().text(Content.builder().data(message).build()).build())
-                    .build();
-
-            SendEmailRequest emailRequest = SendEmailRequest.builder()
-                    .source(senderEmail)
-                    .destination(destination)
-                    .message(emailMessage)
-                    .build();
 
-            sesClient.sendEmail(emailRequest);
-            logger.info("Accountant notification sent to {} for transaction {}", accountantEmail, transactionId);
+            emailOutboxService.enqueue(accountantEmail, subject, message, null);
+            logger.info("Accountant notification queued for {} for transaction {}", accountantEmail, transactionId);
         } catch (Exception e) {
             logger.error("Failed to send accountant notification: {}", e.getMessage());
             throw new RuntimeException("Failed to send accountant notification", e);
@@ -112,13 +95,10 @@ public class NotificationService {
     }
     
     public Notification getNotificationByUploadToken(String uploadToken) {
+        // Forged and mistyped tokens are turned away without a DynamoDB read
+        if (!uploadTokenSigner.isAuthentic(uploadToken)) {
+            throw new RuntimeException("No notification found with the provided upload token");
+        }
         return notificationRepository.getNotificationByUploadToken(uploadToken);
     }
-    
-    public void markNotificationAsResolved(String notificationId) {
-        Notification notification = notificationRepository.getNotification(notificationId);
-        notification.setIsResolved(true);
-        notificationRepository.saveNotification(notification);
-        logger.info("Notification {} marked as resolved", notificationId);
-    }
 } 
\ No newline at end of file
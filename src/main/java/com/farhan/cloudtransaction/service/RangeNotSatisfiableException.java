@@ -0,0 +1,19 @@
+package com.farhan.cloudtransaction.service;
+
+/**
+ * Thrown when a requested byte range lies outside the document. Carries the document's length
+ * so the response can report it in {@code Content-Range: bytes *}{@code /<length>}.
+ */
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    private final long totalLength;
+
+    public RangeNotSatisfiableException(String range, long totalLength) {
+        super("Range " + range + " not satisfiable for " + totalLength + " bytes");
+        this.totalLength = totalLength;
+    }
+
+    public long getTotalLength() {
+        return totalLength;
+    }
+}
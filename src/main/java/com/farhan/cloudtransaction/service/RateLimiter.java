@@ -0,0 +1,41 @@
+package com.farhan.cloudtransaction.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evenly spaced permits at a fixed rate, with the ability to back off for a while
+ * after the downstream service reports throttling.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+    private long pausedUntilNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeNanos = System.nanoTime();
+        this.pausedUntilNanos = nextFreeNanos;
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, Math.max(nextFreeNanos, pausedUntilNanos));
+            nextFreeNanos = start + intervalNanos;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public synchronized void pause(Duration duration) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + duration.toNanos());
+    }
+}
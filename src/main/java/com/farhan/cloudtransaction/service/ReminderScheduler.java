@@ -0,0 +1,161 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.repo.LeaseRepository;
+import com.farhan.cloudtransaction.repo.NotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-sends document requests that are still unresolved after {@code app.reminders.overdueAfter}.
+ * Overdue notifications are read from a sparse index that only holds unresolved ones, so a sweep
+ * never scans the Notifications table. A DynamoDB lease lets one instance sweep at a time, and each
+ * reminder is additionally claimed with a conditional update so it is never sent twice.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final String LEASE_NAME = "overdue-reminders";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final LeaseRepository leaseRepository;
+    private final ExecutorService serviceExecutor;
+    private final String owner = UUID.randomUUID().toString();
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.overdueAfter:P3D}")
+    private Duration overdueAfter;
+
+    @Value("${app.reminders.maxReminders:3}")
+    private int maxReminders;
+
+    @Value("${app.reminders.pageSize:100}")
+    private int pageSize;
+
+    @Value("${app.reminders.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.reminders.maxPerRun:1000}")
+    private int maxPerRun;
+
+    // Must comfortably exceed the time to process one page, since the lease is renewed between pages
+    @Value("${app.reminders.leaseDuration:PT5M}")
+    private Duration leaseDuration;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public ReminderScheduler(NotificationRepository notificationRepository, NotificationService notificationService,
+            LeaseRepository leaseRepository, ExecutorService serviceExecutor, MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.leaseRepository = leaseRepository;
+        this.serviceExecutor = serviceExecutor;
+        this.sentCounter = meterRegistry.counter("reminders.sent");
+        this.failedCounter = meterRegistry.counter("reminders.failed");
+    }
+
+    @Scheduled(initialDelayString = "${app.reminders.pollMs:300000}", fixedDelayString = "${app.reminders.pollMs:300000}")
+    public void sendOverdueReminders() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!leaseRepository.tryAcquire(LEASE_NAME, owner, leaseDuration)) {
+                return;
+            }
+        } catch (Exception e) {
+            logger.error("Error acquiring reminder lease: {}", e.getMessage());
+            return;
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicInteger submitted = new AtomicInteger();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(overdueAfter);
+            notificationRepository.forEachOverduePage(cutoff, pageSize, page -> {
+                // Renew before each page; if another instance has taken over, leave the rest to it
+                if (submitted.get() > 0 && !leaseRepository.tryAcquire(LEASE_NAME, owner, leaseDuration)) {
+                    logger.warn("Lost reminder lease after {} reminders", submitted.get());
+                    return false;
+                }
+                return submitPage(page, permits, submitted);
+            });
+            // Wait for in-flight reminders before giving up the lease
+            permits.acquire(parallelism);
+            if (submitted.get() > 0) {
+                logger.info("Processed {} overdue notifications", submitted.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error sending overdue reminders: {}", e.getMessage());
+        } finally {
+            leaseRepository.release(LEASE_NAME, owner);
+        }
+    }
+
+    private boolean submitPage(List<Notification> page, Semaphore permits, AtomicInteger submitted) {
+        for (Notification notification : page) {
+            if (submitted.get() >= maxPerRun) {
+                return false;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            try {
+                serviceExecutor.execute(() -> {
+                    try {
+                        remind(notification);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                return false;
+            }
+            submitted.incrementAndGet();
+        }
+        return true;
+    }
+
+    private void remind(Notification notification) {
+        try {
+            int reminders = notification.getReminderCount() == null ? 0 : notification.getReminderCount();
+            boolean lastReminder = reminders + 1 >= maxReminders;
+            if (!notificationRepository.claimReminder(notification, LocalDateTime.now(), lastReminder)) {
+                return;
+            }
+            notificationService.sendReminder(notification);
+            sentCounter.increment();
+        } catch (Exception e) {
+            // Claimed but not sent: the notification is picked up again once it is overdue from the new lastReminderAt
+            failedCounter.increment();
+            logger.error("Failed to send reminder for notification {}: {}", notification.getNotificationId(), e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.farhan.cloudtransaction.service;
 
+import com.farhan.cloudtransaction.dto.FileDownload;
+import com.farhan.cloudtransaction.dto.PresignedUpload;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
 import org.springframework.web.multipart.MultipartFile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -13,10 +22,26 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class S3Service {
@@ -28,22 +53,102 @@ public class S3Service {
     @Value("${aws.s3.bucketName}")
     private String bucketName;
 
+    // Uploads larger than this switch from a single streamed PUT to a multipart upload
+    @Value("${aws.s3.multipartThreshold:8388608}")
+    private long multipartThreshold;
+
+    // S3 requires parts of at least 5 MB (except the last)
+    @Value("${aws.s3.partSize:8388608}")
+    private int partSize;
+
+    // Upper bound on part buffers in use at once; further multipart uploads wait for a free buffer
+    @Value("${aws.s3.maxPartBuffers:8}")
+    private int maxPartBuffers;
+
+    private BlockingQueue<byte[]> partBuffers;
+    private final AtomicInteger allocatedPartBuffers = new AtomicInteger();
+
+    // A cached download URL is reused only while it has more than this much validity left
+    @Value("${aws.s3.presign.safetyMargin:PT1H}")
+    private Duration presignSafetyMargin;
+
+    // Upper bound on how long a signature is reused. Keep below the lifetime of temporary
+    // (instance role) credentials, since a URL stops working when its signing credentials expire.
+    @Value("${aws.s3.presign.maxReuse:PT1H}")
+    private Duration presignMaxReuse;
+
+    @Value("${aws.s3.presign.cacheSize:10000}")
+    private long presignCacheSize;
+
+    // Matches the bucket lifecycle rule that expires abandoned direct uploads
+    static final String PENDING_UPLOAD_TAG = "upload=pending";
+
+    private record CachedUrl(String url, Instant expiresAt) {
+    }
+
+    // Download URLs embed the response headers they override, so each name and type needs its own URL
+    private record PresignKey(String key, String fileName, String contentType) {
+    }
+
+    // Compressed objects are stored with Content-Encoding: gzip, so presigned URLs are decoded by the browser,
+    // and with user metadata recording the codec and the uncompressed size
+    public static final String GZIP = "gzip";
+    static final String CODEC_METADATA = "codec";
+    static final String ORIGINAL_LENGTH_METADATA = "original-length";
+    static final String FILE_NAME_METADATA = "filename";
+
+    @Value("${aws.s3.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    // Content types worth compressing; already-compressed formats (PDF, images, xlsx/docx) gain little
+    @Value("${aws.s3.compression.contentTypes:text/plain,text/csv,application/csv,application/json,application/xml,text/xml,application/vnd.ms-excel}")
+    private List<String> compressibleContentTypes;
+
+    @Value("${aws.s3.compression.minSize:1024}")
+    private long compressionMinSize;
+
+    @Value("${aws.s3.compression.level:6}")
+    private int compressionLevel;
+
+    private Cache<PresignKey, CachedUrl> presignedUrlCache;
+
     public S3Service(S3Client s3Client, S3Presigner s3Presigner) {
         this.s3Client = s3Client;
         this.s3Presigner = s3Presigner;
     }
 
+    @PostConstruct
+    public void init() {
+        if (partSize < 5 * 1024 * 1024) {
+            throw new IllegalStateException("aws.s3.partSize must be at least 5 MB");
+        }
+        partBuffers = new ArrayBlockingQueue<>(maxPartBuffers);
+        presignedUrlCache = Caffeine.newBuilder()
+                .maximumSize(presignCacheSize)
+                .expireAfterWrite(presignMaxReuse)
+                .build();
+    }
+
     public String uploadFile(MultipartFile file) {
-        String key = UUID.randomUUID() + "-" + file.getOriginalFilename();
+        return uploadFile(file, UUID.randomUUID() + "-" + file.getOriginalFilename());
+    }
 
-        try {
-            s3Client.putObject(
-                    PutObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(key)
-                            .contentType(file.getContentType())
-                            .build(),
-                    software.amazon.awssdk.core.sync.RequestBody.fromByteBuffer(ByteBuffer.wrap(file.getBytes())));
+    public String uploadFile(MultipartFile file, String key) {
+        // MultipartFile content is spooled by the servlet container, so reading it as a stream keeps it off the heap
+        try (InputStream in = file.getInputStream()) {
+            if (shouldCompress(file)) {
+                uploadCompressed(key, file.getContentType(), file.getSize(), in);
+            } else if (file.getSize() > multipartThreshold) {
+                uploadMultipart(key, file.getContentType(), in);
+            } else {
+                s3Client.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .contentType(file.getContentType())
+                                .build(),
+                        RequestBody.fromInputStream(in, file.getSize()));
+            }
             logger.info("File uploaded successfully with key: {}", key);
             return key;
         } catch (IOException e) {
@@ -52,25 +157,408 @@ public class S3Service {
         }
     }
 
-    public byte[] downloadFile(String key) {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+    private void uploadMultipart(String key, String contentType, InputStream in) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
                 .key(key)
-                .build();
+                .contentType(contentType)
+                .build()).uploadId();
 
+        byte[] buffer = acquirePartBuffer();
         try {
-            logger.info("Downloading file with key: {}", key);
-            return s3Client.getObject(getObjectRequest).readAllBytes();
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            int length;
+            while ((length = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            logger.info("Multipart upload of {} completed in {} parts", key, parts.size());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Multipart upload of {} failed, aborting: {}", key, e.getMessage());
+            abortMultipartUpload(key, uploadId, e);
+            throw e;
+        } finally {
+            partBuffers.offer(buffer);
+        }
+    }
+
+    public void deleteFile(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+        presignedUrlCache.asMap().keySet().removeIf(cached -> cached.key().equals(key));
+        logger.info("Deleted file with key: {}", key);
+    }
+
+    private boolean shouldCompress(MultipartFile file) {
+        if (!compressionEnabled || file.getSize() < compressionMinSize || file.getContentType() == null) {
+            return false;
+        }
+        String contentType = file.getContentType().split(";")[0].trim().toLowerCase();
+        return compressibleContentTypes.contains(contentType);
+    }
+
+    // The compressed size is not known up front, so the output fills a part buffer and only becomes
+    // a multipart upload once it outgrows one part; small files still go up as a single PUT
+    private void uploadCompressed(String key, String contentType, long originalLength, InputStream in) throws IOException {
+        Map<String, String> metadata = Map.of(
+                CODEC_METADATA, GZIP,
+                ORIGINAL_LENGTH_METADATA, String.valueOf(originalLength));
+        byte[] buffer = acquirePartBuffer();
+        PartOutputStream parts = new PartOutputStream(key, contentType, metadata, buffer);
+        try {
+            try (GZIPOutputStream out = new GZIPOutputStream(parts, 64 * 1024) {
+                {
+                    def.setLevel(compressionLevel);
+                }
+            }) {
+                in.transferTo(out);
+            }
+            long compressedLength = parts.complete();
+            logger.info("Compressed upload of {}: {} -> {} bytes", key, originalLength, compressedLength);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Compressed upload of {} failed: {}", key, e.getMessage());
+            parts.abort(e);
+            throw e;
+        } finally {
+            partBuffers.offer(buffer);
+        }
+    }
+
+    private class PartOutputStream extends OutputStream {
+        private final String key;
+        private final String contentType;
+        private final Map<String, String> metadata;
+        private final byte[] buffer;
+        private final List<CompletedPart> parts = new ArrayList<>();
+        private int filled;
+        private long written;
+        private String uploadId;
+
+        PartOutputStream(String key, String contentType, Map<String, String> metadata, byte[] buffer) {
+            this.key = key;
+            this.contentType = contentType;
+            this.metadata = metadata;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (filled == buffer.length) {
+                    uploadPart();
+                }
+                int chunk = Math.min(length, buffer.length - filled);
+                System.arraycopy(bytes, offset, buffer, filled, chunk);
+                filled += chunk;
+                written += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        // Closing the gzip stream closes this one; the upload is finished separately by complete()
+        @Override
+        public void close() {
+        }
+
+        private void uploadPart() {
+            if (uploadId == null) {
+                uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentEncoding(GZIP)
+                        .metadata(metadata)
+                        .build()).uploadId();
+            }
+            int partNumber = parts.size() + 1;
+            UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) filled)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+            parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+            filled = 0;
+        }
+
+        long complete() {
+            if (uploadId == null) {
+                s3Client.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .contentType(contentType)
+                                .contentEncoding(GZIP)
+                                .metadata(metadata)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+                return written;
+            }
+            if (filled > 0) {
+                uploadPart();
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return written;
+        }
+
+        void abort(Exception cause) {
+            if (uploadId != null) {
+                abortMultipartUpload(key, uploadId, cause);
+            }
+        }
+    }
+
+    // A failed abort must not hide why the upload failed, so it is attached to the original error.
+    // The bucket's lifecycle rule cleans up multipart uploads that could not be aborted.
+    private void abortMultipartUpload(String key, String uploadId, Exception cause) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to abort multipart upload of {}: {}", key, e.getMessage());
+            cause.addSuppressed(e);
+        }
+    }
+
+    private byte[] acquirePartBuffer() {
+        byte[] buffer = partBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocatedPartBuffers.getAndUpdate(n -> n < maxPartBuffers ? n + 1 : n) < maxPartBuffers) {
+            return new byte[partSize];
+        }
+        try {
+            return partBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an upload buffer", e);
+        }
+    }
+
+    // acceptsGzip: the client sent Accept-Encoding: gzip, so a compressed object can be passed through as-is
+    public FileDownload downloadFile(String key, String range, boolean acceptsGzip) {
+        logger.info("Downloading file with key: {} (range: {})", key, range);
+        // S3 ranges address the stored bytes, so a range over a compressed object is served from the decoded
+        // stream. Checking the codec up front keeps such a request from fetching the object twice.
+        String storedRange = range != null && isCompressed(headObject(key).metadata()) ? null : range;
+        // The caller streams and closes the S3 response; nothing is buffered here
+        ResponseInputStream<GetObjectResponse> object = getObject(key, storedRange);
+        GetObjectResponse response = object.response();
+        if (!isCompressed(response.metadata())) {
+            return new FileDownload(
+                    object,
+                    response.contentLength(),
+                    response.contentRange(),
+                    response.eTag(),
+                    totalLength(response.contentRange(), response.contentLength()),
+                    null, null, null);
+        }
+
+        // Only when the object was replaced by a compressed one after the HEAD above
+        if (response.contentRange() != null) {
+            closeQuietly(object);
+            object = getObject(key, null);
+            response = object.response();
+        }
+        if (acceptsGzip && range == null) {
+            return new FileDownload(object, response.contentLength(), null, response.eTag(), response.contentLength(), GZIP, null, null);
+        }
+        try {
+            return decompressed(object, response, range);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(object);
+            throw e instanceof RuntimeException runtime ? runtime : new RuntimeException("Failed to read file", e);
+        }
+    }
+
+    private ResponseInputStream<GetObjectResponse> getObject(String key, String range) {
+        GetObjectRequest.Builder getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key);
+        if (range != null) {
+            getObjectRequest.range(range);
+        }
+        return s3Client.getObject(getObjectRequest.build());
+    }
+
+    private HeadObjectResponse headObject(String key) {
+        return s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    static FileDownload decompressed(InputStream object, GetObjectResponse response, String range) throws IOException {
+        InputStream content = new GZIPInputStream(object, 64 * 1024);
+        Long originalLength = originalLength(response.metadata());
+        String eTag = decodedETag(response.eTag());
+        if (range == null || originalLength == null) {
+            return new FileDownload(content, originalLength != null ? originalLength : -1, null, eTag, originalLength, null, null, null);
+        }
+
+        // Single ranges only, as passed on by the download endpoint: "bytes=start-end", "bytes=start-" or "bytes=-suffix"
+        String[] bounds = range.substring("bytes=".length()).split("-", -1);
+        long start;
+        long end;
+        if (bounds[0].isEmpty()) {
+            start = Math.max(0, originalLength - Long.parseLong(bounds[1]));
+            end = originalLength - 1;
+        } else {
+            start = Long.parseLong(bounds[0]);
+            end = bounds[1].isEmpty() ? originalLength - 1 : Math.min(Long.parseLong(bounds[1]), originalLength - 1);
+        }
+        if (start >= originalLength || start > end) {
+            content.close();
+            throw new RangeNotSatisfiableException(range, originalLength);
+        }
+        content.skipNBytes(start);
+        long length = end - start + 1;
+        return new FileDownload(new BoundedInputStream(content, length), length,
+                "bytes " + start + "-" + end + "/" + originalLength, eTag, originalLength, null, null, null);
+    }
+
+    public FileDownload getFileMetadata(String key) {
+        HeadObjectResponse response = headObject(key);
+        String fileName = fileName(response.metadata());
+        // Describe the decoded variant, which is what a download without Accept-Encoding returns
+        if (isCompressed(response.metadata())) {
+            Long length = originalLength(response.metadata());
+            return new FileDownload(null, length != null ? length : -1, null, decodedETag(response.eTag()), length, null,
+                    fileName, response.contentType());
+        }
+        return new FileDownload(null, response.contentLength(), null, response.eTag(), response.contentLength(), null,
+                fileName, response.contentType());
+    }
+
+    // Set on direct uploads, whose original name only the browser knows; URL-encoded, since S3 metadata is ASCII
+    private static String fileName(Map<String, String> metadata) {
+        String value = metadata.get(FILE_NAME_METADATA);
+        return value != null ? URLDecoder.decode(value, StandardCharsets.UTF_8) : null;
+    }
+
+    private static boolean isCompressed(Map<String, String> metadata) {
+        String codec = metadata.get(CODEC_METADATA);
+        if (codec == null) {
+            return false;
+        }
+        if (!GZIP.equals(codec)) {
+            throw new IllegalStateException("Unsupported storage codec: " + codec);
+        }
+        return true;
+    }
+
+    // The decoded bytes differ from the stored gzip bytes, so they need their own strong entity tag
+    // for caches and If-Range to tell the two variants apart
+    static String decodedETag(String eTag) {
+        if (eTag == null) {
+            return null;
+        }
+        return eTag.endsWith("\"") ? eTag.substring(0, eTag.length() - 1) + "-decoded\"" : eTag + "-decoded";
+    }
+
+    private static Long originalLength(Map<String, String> metadata) {
+        String value = metadata.get(ORIGINAL_LENGTH_METADATA);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
         } catch (IOException e) {
-            logger.error("Failed to download file: {}", e.getMessage());
-            throw new RuntimeException("Failed to download file", e);
+            logger.debug("Failed to close S3 stream: {}", e.getMessage());
+        }
+    }
+
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    private static Long totalLength(String contentRange, Long contentLength) {
+        // Content-Range looks like "bytes 0-99/1234"
+        if (contentRange == null) {
+            return contentLength;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || contentRange.endsWith("*")) {
+            return null;
         }
+        return Long.valueOf(contentRange.substring(slash + 1));
     }
     
-    public String generatePresignedUploadUrl(String key, Duration expiration) {
+    // Content type, length, file name and the pending tag are signed, so the browser can only PUT the file it described
+    public PresignedUpload generatePresignedUploadUrl(String key, String fileName, String contentType, long contentLength,
+            Duration expiration) {
         PutObjectRequest objectRequest = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .metadata(Map.of(FILE_NAME_METADATA, URLEncoder.encode(fileName, StandardCharsets.UTF_8)))
+                .tagging(PENDING_UPLOAD_TAG)
                 .build();
 
         PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
@@ -79,14 +567,46 @@ public class S3Service {
                 .build();
 
         PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+        // Browsers set Host and Content-Length themselves and refuse to have them set by scripts
+        Map<String, String> headers = new LinkedHashMap<>();
+        presignedRequest.signedHeaders().forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+                headers.put(name, String.join(",", values));
+            }
+        });
         logger.info("Generated presigned upload URL for key: {}", key);
-        return presignedRequest.url().toString();
+        return new PresignedUpload(key, presignedRequest.url().toString(), headers, presignedRequest.expiration());
     }
-    
-    public String generatePresignedDownloadUrl(String key, Duration expiration) {
+
+    // Clears the tag that lets the bucket lifecycle expire direct uploads that were never completed
+    public void markUploadComplete(String key) {
+        s3Client.deleteObjectTagging(DeleteObjectTaggingRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    // The URL makes S3 answer with the document's own name and type rather than the content-addressed key
+    public String generatePresignedDownloadUrl(String key, String fileName, String contentType, Duration expiration) {
+        Instant now = Instant.now();
+        PresignKey presignKey = new PresignKey(key, fileName, contentType);
+        CachedUrl cached = presignedUrlCache.getIfPresent(presignKey);
+        if (cached != null && cached.expiresAt().minus(presignSafetyMargin).isAfter(now)) {
+            return cached.url();
+        }
+
+        String url = presignDownloadUrl(presignKey, expiration);
+        presignedUrlCache.put(presignKey, new CachedUrl(url, now.plus(expiration)));
+        return url;
+    }
+
+    private String presignDownloadUrl(PresignKey presignKey, Duration expiration) {
+        String key = presignKey.key();
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
+                .responseContentDisposition(attachment(presignKey.fileName()))
+                .responseContentType(presignKey.contentType())
                 .build();
 
         GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
@@ -98,4 +618,15 @@ public class S3Service {
         logger.info("Generated presigned download URL for key: {}", key);
         return presignedRequest.url().toString();
     }
+
+    // Content-Disposition for a download saved under fileName; non-ASCII names are also sent RFC 5987 encoded
+    public static String attachment(String fileName) {
+        ContentDisposition.Builder disposition = ContentDisposition.attachment();
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)) {
+            disposition.filename(fileName);
+        } else {
+            disposition.filename(fileName, StandardCharsets.UTF_8);
+        }
+        return disposition.build().toString();
+    }
 }
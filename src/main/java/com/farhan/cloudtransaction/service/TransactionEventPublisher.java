@@ -0,0 +1,268 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.dto.TransactionEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes transaction lifecycle events to EventBridge. Events are buffered in memory and
+ * sent by a single background thread in PutEvents batches, flushed when a batch is full or
+ * {@code app.events.flushMs} after its first event, so callers never wait on EventBridge.
+ * Entries that EventBridge rejects are put back in the buffer and retried.
+ * Delivery is best effort: events still buffered when the instance stops are lost.
+ */
+@Service
+public class TransactionEventPublisher {
+
+    public static final String TRANSACTION_CREATED = "TransactionCreated";
+    public static final String NOTIFICATION_SENT = "NotificationSent";
+    public static final String DOCUMENT_UPLOADED = "DocumentUploaded";
+
+    // PutEvents limits per request
+    private static final int MAX_BATCH_ENTRIES = 10;
+    private static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final EventBridgeClient eventBridgeClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionEventPublisher.class);
+
+    @Value("${app.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.events.busName:default}")
+    private String busName;
+
+    @Value("${app.events.source:com.farhan.cloudtransaction}")
+    private String source;
+
+    @Value("${app.events.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.events.flushMs:1000}")
+    private long flushMs;
+
+    @Value("${app.events.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.events.baseBackoffMs:200}")
+    private long baseBackoffMs;
+
+    @Value("${app.events.shutdownTimeoutMs:5000}")
+    private long shutdownTimeoutMs;
+
+    private static final class PendingEvent {
+        private final PutEventsRequestEntry entry;
+        private final int size;
+        private int attempts;
+
+        PendingEvent(PutEventsRequestEntry entry, int size) {
+            this.entry = entry;
+            this.size = size;
+        }
+    }
+
+    private BlockingQueue<PendingEvent> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Counter publishedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Counter droppedCounter;
+
+    public TransactionEventPublisher(EventBridgeClient eventBridgeClient, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.eventBridgeClient = eventBridgeClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        buffer = new LinkedBlockingQueue<>(queueCapacity);
+        Gauge.builder("events.buffered", buffer, BlockingQueue::size)
+                .description("Events waiting to be sent to EventBridge")
+                .register(meterRegistry);
+        publishedCounter = meterRegistry.counter("events.published");
+        retriedCounter = meterRegistry.counter("events.retried");
+        failedCounter = meterRegistry.counter("events.failed");
+        droppedCounter = meterRegistry.counter("events.dropped");
+
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "event-publisher");
+        flusher.setDaemon(true);
+        flusher.start();
+        // 0 means buffered events are no longer being sent; alert on it while the application is up
+        Gauge.builder("events.flusher.running", flusher, thread -> thread.isAlive() ? 1 : 0)
+                .description("Whether the EventBridge flusher thread is running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        // The flusher drains what is already buffered before it exits
+        running = false;
+        flusher.join(shutdownTimeoutMs);
+        if (!buffer.isEmpty()) {
+            logger.warn("{} events were not published before shutdown", buffer.size());
+        }
+    }
+
+    public void publish(String detailType, TransactionEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            PutEventsRequestEntry entry = PutEventsRequestEntry.builder()
+                    .eventBusName(busName)
+                    .source(source)
+                    .detailType(detailType)
+                    .detail(objectMapper.writeValueAsString(event))
+                    .time(Instant.now())
+                    .build();
+            int size = entrySize(entry);
+            if (size > MAX_BATCH_BYTES) {
+                failedCounter.increment();
+                logger.error("{} event for transaction {} is too large to publish ({} bytes)",
+                        detailType, event.transactionId(), size);
+                return;
+            }
+            if (!buffer.offer(new PendingEvent(entry, size))) {
+                droppedCounter.increment();
+                logger.warn("Event buffer full, dropping {} event for transaction {}", detailType, event.transactionId());
+            }
+        } catch (JsonProcessingException e) {
+            failedCounter.increment();
+            logger.error("Failed to serialize {} event for transaction {}: {}", detailType, event.transactionId(), e.getMessage());
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingEvent> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+        PendingEvent carry = null;
+        try {
+            while (running || carry != null || !buffer.isEmpty()) {
+                try {
+                    PendingEvent first = carry != null ? carry : buffer.poll(flushMs, TimeUnit.MILLISECONDS);
+                    carry = null;
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    int bytes = first.size;
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+                    while (batch.size() < MAX_BATCH_ENTRIES) {
+                        // While shutting down, send whatever is buffered without waiting for more
+                        PendingEvent next = running
+                                ? buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                                : buffer.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (bytes + next.size > MAX_BATCH_BYTES) {
+                            carry = next;
+                            break;
+                        }
+                        batch.add(next);
+                        bytes += next.size;
+                    }
+                    send(batch);
+                } catch (RuntimeException e) {
+                    // This is the only flusher, so drop the batch it was working on and keep going
+                    failedCounter.increment(batch.size());
+                    logger.error("Failed to publish {} events: {}", batch.size(), e.getMessage(), e);
+                    Thread.sleep(flushMs);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (running) {
+                logger.error("Event publisher stopped while the application is running; events will no longer be published");
+            }
+        }
+    }
+
+    private void send(List<PendingEvent> batch) throws InterruptedException {
+        List<PendingEvent> failed = new ArrayList<>();
+        try {
+            PutEventsResponse response = eventBridgeClient.putEvents(r -> r.entries(
+                    batch.stream().map(event -> event.entry).toList()));
+            // Result entries are in request order; failed ones carry an error code
+            List<PutEventsResultEntry> results = response.entries();
+            for (int i = 0; i < batch.size(); i++) {
+                if (i < results.size() && results.get(i).errorCode() == null) {
+                    publishedCounter.increment();
+                } else {
+                    failed.add(batch.get(i));
+                    if (i < results.size()) {
+                        logger.debug("EventBridge rejected event: {} {}", results.get(i).errorCode(), results.get(i).errorMessage());
+                    }
+                }
+            }
+        } catch (SdkException e) {
+            logger.warn("PutEvents for {} events failed: {}", batch.size(), e.getMessage());
+            failed.addAll(batch);
+        }
+        if (!failed.isEmpty()) {
+            retry(failed);
+        }
+    }
+
+    private void retry(List<PendingEvent> failed) throws InterruptedException {
+        int attempts = 0;
+        for (PendingEvent event : failed) {
+            event.attempts++;
+            attempts = Math.max(attempts, event.attempts);
+            if (event.attempts >= maxAttempts || !buffer.offer(event)) {
+                failedCounter.increment();
+                logger.error("Giving up on {} event after {} attempts", event.entry.detailType(), event.attempts);
+            } else {
+                retriedCounter.increment();
+            }
+        }
+        // Failures are usually throttling, so back off before the next batch
+        Thread.sleep(Math.min(baseBackoffMs << Math.min(attempts - 1, 10), flushMs * 5));
+    }
+
+    // Size as EventBridge counts it against the 256 KB request limit
+    private static int entrySize(PutEventsRequestEntry entry) {
+        int size = 14; // Time
+        size += entry.source().getBytes(StandardCharsets.UTF_8).length;
+        size += entry.detailType().getBytes(StandardCharsets.UTF_8).length;
+        size += entry.detail().getBytes(StandardCharsets.UTF_8).length;
+        return size;
+    }
+}
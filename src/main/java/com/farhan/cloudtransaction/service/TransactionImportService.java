@@ -0,0 +1,260 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.dto.CreateTransactionRequest;
+import com.farhan.cloudtransaction.dto.ImportReport;
+import com.farhan.cloudtransaction.dto.ImportRowResult;
+import com.farhan.cloudtransaction.dto.TransactionEvent;
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.ClientSummaryRepository;
+import com.farhan.cloudtransaction.repo.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+@Service
+public class TransactionImportService {
+
+    private final TransactionRepository transactionRepository;
+    private final ClientSummaryRepository clientSummaryRepository;
+    private final TransactionService transactionService;
+    private final TransactionEventPublisher eventPublisher;
+    private final ObjectProvider<Validator> validatorProvider;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    // Number of 25-item BatchWriteItem chunks allowed in flight per import
+    @Value("${app.import.maxInFlightBatches:4}")
+    private int maxInFlightBatches;
+
+    @Value("${app.import.workers:8}")
+    private int workers;
+
+    private ExecutorService executor;
+
+    private record PendingRow(long row, Transaction transaction) {
+    }
+
+    public TransactionImportService(TransactionRepository transactionRepository, ClientSummaryRepository clientSummaryRepository,
+            TransactionService transactionService, TransactionEventPublisher eventPublisher,
+            ObjectProvider<Validator> validatorProvider) {
+        this.transactionRepository = transactionRepository;
+        this.clientSummaryRepository = clientSummaryRepository;
+        this.transactionService = transactionService;
+        this.eventPublisher = eventPublisher;
+        this.validatorProvider = validatorProvider;
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Expects a header row with clientId, clientEmail and description columns (any order).
+    // Row numbers in the report are line-of-record numbers with the header as row 1.
+    // Only an unreadable header fails the whole import; once rows have been submitted, the report
+    // always covers them, even if the import stops early.
+    public ImportReport importTransactions(InputStream csv) {
+        ConcurrentLinkedQueue<ImportRowResult> results = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore(maxInFlightBatches);
+
+        try (CsvRowReader reader = new CsvRowReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> header;
+            try {
+                header = reader.readRow();
+            } catch (IOException e) {
+                logger.error("Failed to read import file: {}", e.getMessage());
+                throw new IllegalArgumentException("Could not read CSV file: " + e.getMessage(), e);
+            }
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> columns = columnIndexes(header);
+            try {
+                readRows(reader, columns, inFlight, results);
+            } finally {
+                // Submitted batches keep writing after a failure, so wait for them before reporting
+                inFlight.acquireUninterruptibly(maxInFlightBatches);
+            }
+        } catch (IOException e) {
+            // Only closing the upload can fail here, after every row has been handled
+            logger.warn("Failed to close import file: {}", e.getMessage());
+        }
+
+        List<ImportRowResult> rows = results.stream()
+                .sorted(Comparator.comparingLong(ImportRowResult::row))
+                .collect(Collectors.toList());
+        ImportReport report = new ImportReport(rows);
+        logger.info("Imported {} of {} transactions ({} failed)", report.imported(), report.totalRows(), report.failed());
+        return report;
+    }
+
+    // A read error mid-file is reported against the row it happened on, and the valid rows before it are
+    // still written. An interruption or a rejected batch stops the import and fails that batch's rows.
+    private void readRows(CsvRowReader reader, Map<String, Integer> columns, Semaphore inFlight,
+            ConcurrentLinkedQueue<ImportRowResult> results) {
+        long rowNumber = 1;
+        List<PendingRow> batch = new ArrayList<>(TransactionRepository.MAX_BATCH_SIZE);
+        try {
+            List<String> row;
+            while ((row = reader.readRow()) != null) {
+                rowNumber++;
+                if (row.size() == 1 && row.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    CreateTransactionRequest request = new CreateTransactionRequest(
+                            field(row, columns, "clientid"),
+                            field(row, columns, "clientemail"),
+                            field(row, columns, "description"));
+                    validate(request);
+                    batch.add(new PendingRow(rowNumber, transactionService.newTransaction(request)));
+                } catch (IllegalArgumentException e) {
+                    results.add(ImportRowResult.failed(rowNumber, e.getMessage()));
+                    continue;
+                }
+
+                if (batch.size() == TransactionRepository.MAX_BATCH_SIZE) {
+                    List<PendingRow> full = batch;
+                    batch = new ArrayList<>(TransactionRepository.MAX_BATCH_SIZE);
+                    if (!submit(full, inFlight, results)) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read import file after row {}: {}", rowNumber, e.getMessage());
+            results.add(ImportRowResult.failed(rowNumber + 1,
+                    "Could not read the file from this row on: " + e.getMessage()));
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, inFlight, results);
+        }
+    }
+
+    // Returns false, with the batch's rows reported as failed, when the import has to stop
+    private boolean submit(List<PendingRow> batch, Semaphore inFlight, ConcurrentLinkedQueue<ImportRowResult> results) {
+        // Blocks the reader when too many batches are in flight, so memory stays bounded
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Import interrupted, {} rows not written", batch.size());
+            batch.forEach(pending -> results.add(ImportRowResult.failed(pending.row(), "Import interrupted")));
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeBatch(batch, results);
+                } finally {
+                    inFlight.release();
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            inFlight.release();
+            logger.error("Could not submit import batch of {} transactions: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> results.add(ImportRowResult.failed(pending.row(), "Import stopped before this row was written")));
+            return false;
+        }
+    }
+
+    private void writeBatch(List<PendingRow> batch, ConcurrentLinkedQueue<ImportRowResult> results) {
+        List<Transaction> transactions = batch.stream().map(PendingRow::transaction).collect(Collectors.toList());
+        try {
+            Set<String> unprocessed = transactionRepository.saveTransactions(transactions).stream()
+                    .map(Transaction::getTransactionId)
+                    .collect(Collectors.toSet());
+            for (PendingRow pending : batch) {
+                Transaction transaction = pending.transaction();
+                if (unprocessed.contains(transaction.getTransactionId())) {
+                    results.add(ImportRowResult.failed(pending.row(), "Write was throttled, please retry this row"));
+                } else {
+                    results.add(ImportRowResult.imported(pending.row(), transaction.getTransactionId()));
+                    eventPublisher.publish(TransactionEventPublisher.TRANSACTION_CREATED, TransactionEvent.created(
+                            transaction.getTransactionId(), transaction.getClientId(), transaction.getCreatedAt()));
+                }
+            }
+            updateClientSummaries(transactions, unprocessed);
+        } catch (RuntimeException e) {
+            logger.error("Failed to import batch of {} transactions: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> results.add(ImportRowResult.failed(pending.row(), "Database error")));
+        }
+    }
+
+    // BatchWriteItem can't carry the summary updates, so they follow the batch with one ADD per client
+    private void updateClientSummaries(List<Transaction> transactions, Set<String> unprocessed) {
+        Map<String, Long> createdPerClient = transactions.stream()
+                .filter(transaction -> !unprocessed.contains(transaction.getTransactionId()))
+                .collect(Collectors.groupingBy(Transaction::getClientId, Collectors.counting()));
+        createdPerClient.forEach((clientId, count) -> {
+            try {
+                clientSummaryRepository.recordCreated(clientId, count);
+            } catch (RuntimeException e) {
+                logger.warn("Imported {} transactions for client {} but could not update its summary: {}",
+                        count, clientId, e.getMessage());
+            }
+        });
+    }
+
+    private void validate(CreateTransactionRequest request) {
+        // Same bean validation rules as POST /api/transactions, when a validator is available
+        Validator validator = validatorProvider.getIfAvailable();
+        if (validator == null) {
+            return;
+        }
+        Set<ConstraintViolation<CreateTransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static Map<String, Integer> columnIndexes(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(), i);
+        }
+        for (String required : List.of("clientid", "clientemail", "description")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < row.size() ? row.get(index).trim() : null;
+    }
+}
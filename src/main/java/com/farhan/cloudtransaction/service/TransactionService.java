@@ -1,31 +1,59 @@
 package com.farhan.cloudtransaction.service;
 
+import com.farhan.cloudtransaction.dto.ClientSummaryDTO;
 import com.farhan.cloudtransaction.dto.CreateTransactionRequest;
+import com.farhan.cloudtransaction.dto.DirectUploadRequest;
+import com.farhan.cloudtransaction.dto.DownloadUrlResult;
+import com.farhan.cloudtransaction.dto.FileDownload;
+import com.farhan.cloudtransaction.dto.PagedResult;
+import com.farhan.cloudtransaction.dto.PresignedUpload;
 import com.farhan.cloudtransaction.dto.SendNotificationRequest;
 import com.farhan.cloudtransaction.dto.TransactionDTO;
+import com.farhan.cloudtransaction.dto.TransactionEvent;
+import com.farhan.cloudtransaction.entity.ClientSummary;
 import com.farhan.cloudtransaction.entity.Notification;
 import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.AsyncTransactionRepository;
+import com.farhan.cloudtransaction.repo.ClientSummaryRepository;
+import com.farhan.cloudtransaction.repo.PageCursor;
 import com.farhan.cloudtransaction.repo.TransactionRepository;
+import com.farhan.cloudtransaction.repo.UploadCompletionRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final AsyncTransactionRepository asyncTransactionRepository;
+    private final UploadCompletionRepository uploadCompletionRepository;
+    private final ClientSummaryRepository clientSummaryRepository;
     private final S3Service s3Service;
+    private final DocumentStore documentStore;
     private final NotificationService notificationService;
+    private final TransactionEventPublisher eventPublisher;
+    private final ExecutorService serviceExecutor;
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+    private static final int MAX_FILE_NAME_LENGTH = 255;
 
     @Value("${accountant.email}")
     private String accountantEmail;
@@ -33,27 +61,63 @@ public class TransactionService {
     @Value("${app.fileDownloadExpiration}")
     private long fileDownloadExpirationHours;
 
-    public TransactionService(TransactionRepository transactionRepository, S3Service s3Service,
-            NotificationService notificationService) {
+    @Value("${app.transactions.maxPageSize:500}")
+    private int maxPageSize;
+
+    @Value("${app.transactions.exportPageSize:500}")
+    private int exportPageSize;
+
+    @Value("${app.downloadUrls.maxBatchSize:100}")
+    private int maxDownloadUrlBatchSize;
+
+    @Value("${app.upload.direct.enabled:true}")
+    private boolean directUploadEnabled;
+
+    @Value("${app.upload.direct.urlExpiration:PT15M}")
+    private Duration directUploadUrlExpiration;
+
+    // Same limit as proxied uploads (spring.servlet.multipart.max-file-size)
+    @Value("${app.upload.direct.maxSize:104857600}")
+    private long maxDirectUploadSize;
+
+    public TransactionService(TransactionRepository transactionRepository, AsyncTransactionRepository asyncTransactionRepository,
+            UploadCompletionRepository uploadCompletionRepository, ClientSummaryRepository clientSummaryRepository,
+            S3Service s3Service, DocumentStore documentStore, NotificationService notificationService, TransactionEventPublisher eventPublisher,
+            ExecutorService serviceExecutor) {
         this.transactionRepository = transactionRepository;
+        this.asyncTransactionRepository = asyncTransactionRepository;
+        this.uploadCompletionRepository = uploadCompletionRepository;
+        this.clientSummaryRepository = clientSummaryRepository;
         this.s3Service = s3Service;
+        this.documentStore = documentStore;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.serviceExecutor = serviceExecutor;
     }
 
     public TransactionDTO createTransaction(CreateTransactionRequest request) {
+        Transaction transaction = newTransaction(request);
+        
+        transactionRepository.createTransaction(transaction);
+        logger.info("Created new transaction with ID: {}", transaction.getTransactionId());
+        eventPublisher.publish(TransactionEventPublisher.TRANSACTION_CREATED, TransactionEvent.created(
+                transaction.getTransactionId(), transaction.getClientId(), transaction.getCreatedAt()));
+        
+        return new TransactionDTO(transaction);
+    }
+
+    Transaction newTransaction(CreateTransactionRequest request) {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(UUID.randomUUID().toString());
         transaction.setClientId(request.clientId());
         transaction.setClientEmail(request.clientEmail());
         transaction.setDescription(request.description());
         transaction.setIsCompleted(false);
+        // Both creation paths count the transaction in the client's summary
+        transaction.setSummaryCounted(true);
         transaction.setCreatedAt(LocalDateTime.now());
         transaction.setUpdatedAt(LocalDateTime.now());
-        
-        transactionRepository.saveTransaction(transaction);
-        logger.info("Created new transaction with ID: {}", transaction.getTransactionId());
-        
-        return new TransactionDTO(transaction);
+        return transaction;
     }
 
     public TransactionDTO getTransactionById(String transactionId) {
@@ -61,11 +125,45 @@ public class TransactionService {
         return new TransactionDTO(transaction);
     }
     
-    public List<TransactionDTO> getTransactionsByClientId(String clientId) {
-        List<Transaction> transactions = transactionRepository.getTransactionsByClientId(clientId);
-        return transactions.stream()
-                .map(TransactionDTO::new)
-                .collect(Collectors.toList());
+    public PagedResult<TransactionDTO> getTransactionsByClientId(String clientId, int limit, String cursor) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize);
+        }
+        validateClientCursor(clientId, cursor);
+        return transactionRepository.getTransactionsByClientId(clientId, limit, cursor)
+                .map(TransactionDTO::new);
+    }
+
+    public CompletableFuture<PagedResult<TransactionDTO>> getTransactionsByClientIdAsync(String clientId, int limit, String cursor) {
+        if (limit < 1 || limit > maxPageSize) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Limit must be between 1 and " + maxPageSize));
+        }
+        try {
+            validateClientCursor(clientId, cursor);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return asyncTransactionRepository.getTransactionsByClientId(clientId, limit, cursor)
+                .thenApply(page -> page.map(TransactionDTO::new));
+    }
+
+    // Throws IllegalArgumentException for a cursor that does not decode, or that was not taken
+    // from this client's listing (DynamoDB would only reject it once the query runs)
+    public void validateClientCursor(String clientId, String cursor) {
+        Map<String, AttributeValue> key = PageCursor.decode(cursor);
+        if (key == null) {
+            return;
+        }
+        AttributeValue cursorClientId = key.get("clientId");
+        if (cursorClientId == null || !clientId.equals(cursorClientId.s())
+                || !key.containsKey("createdAt") || !key.containsKey("transactionId") || key.size() != 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public void exportTransactionsByClientId(String clientId, String cursor, Consumer<PagedResult<TransactionDTO>> pageConsumer) {
+        transactionRepository.forEachTransactionPageByClientId(clientId, exportPageSize, cursor,
+                page -> pageConsumer.accept(page.map(TransactionDTO::new)));
     }
 
     public Notification sendNotification(SendNotificationRequest request) {
@@ -79,11 +177,12 @@ public class TransactionService {
         );
         
         // Update transaction with notification ID
-        transaction.setNotificationId(notification.getNotificationId());
-        transaction.setUpdatedAt(LocalDateTime.now());
-        transactionRepository.saveTransaction(transaction);
+        transactionRepository.updateNotificationId(transaction.getTransactionId(), notification.getNotificationId());
         
         logger.info("Sent notification for transaction: {}", transaction.getTransactionId());
+        eventPublisher.publish(TransactionEventPublisher.NOTIFICATION_SENT, TransactionEvent.notificationSent(
+                transaction.getTransactionId(), transaction.getClientId(), notification.getNotificationId(),
+                notification.getSentAt()));
         return notification;
     }
     
@@ -94,32 +193,136 @@ public class TransactionService {
     }
 
     public void attachFileToTransaction(String uploadToken, MultipartFile file) {
-        // Get notification by upload token
-        Notification notification = notificationService.getNotificationByUploadToken(uploadToken);
+        Notification notification = getOpenNotification(uploadToken);
         String transactionId = notification.getTransactionId();
         
-        // Get transaction
-        Transaction transaction = transactionRepository.getTransaction(transactionId);
-        
-        // Upload file to S3
-        String fileKey = s3Service.uploadFile(file);
-        transaction.setFileKey(fileKey);
-        transaction.setIsCompleted(true);
-        transaction.setUpdatedAt(LocalDateTime.now());
-        
-        // Save updated transaction
-        transactionRepository.saveTransaction(transaction);
-        
-        // Mark notification as resolved
-        notificationService.markNotificationAsResolved(notification.getNotificationId());
+        // Look up the client (for its summary counters) while the file uploads to S3
+        CompletableFuture<Transaction> transactionLookup = CompletableFuture.supplyAsync(
+                () -> transactionRepository.getTransaction(transactionId), serviceExecutor);
+        String fileKey = documentStore.store(file);
+        String fileName = uploadedFileName(file.getOriginalFilename(), transactionId);
+        String contentType = contentTypeOrDefault(file.getContentType());
+        String clientId;
+        try {
+            Transaction transaction = await(transactionLookup);
+            clientId = transaction.getClientId();
+            
+            // Complete the transaction, resolve the notification and update the client summary atomically;
+            // the conditions reject a concurrent second upload
+            uploadCompletionRepository.completeUpload(transactionId, clientId,
+                    Boolean.TRUE.equals(transaction.getSummaryCounted()), notification.getNotificationId(), fileKey,
+                    fileName, contentType);
+        } catch (RuntimeException e) {
+            // The file was not attached, so give up this upload's reference to it
+            documentStore.release(fileKey);
+            throw e;
+        }
+        onFileAttached(transactionId, clientId, notification.getNotificationId(), fileKey, fileName, contentType);
+    }
+
+    public boolean isDirectUploadEnabled() {
+        return directUploadEnabled;
+    }
+
+    // First step of a direct-to-S3 upload: a presigned PUT for a key that only this upload token can complete
+    public PresignedUpload createDirectUpload(String uploadToken, DirectUploadRequest request) {
+        if (!directUploadEnabled) {
+            throw new RuntimeException("Direct uploads are disabled");
+        }
+        if (request.size() > maxDirectUploadSize) {
+            throw new IllegalArgumentException("File is larger than the " + maxDirectUploadSize + " byte limit");
+        }
+        Notification notification = getOpenNotification(uploadToken);
+        String fileName = uploadedFileName(request.fileName(), notification.getTransactionId());
+        String keyName = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        String key = directUploadPrefix(notification) + UUID.randomUUID() + "-"
+                + keyName.substring(0, Math.min(keyName.length(), 100));
+        return s3Service.generatePresignedUploadUrl(key, fileName, contentTypeOrDefault(request.contentType()),
+                request.size(), directUploadUrlExpiration);
+    }
+
+    // Second step: the browser has PUT the file to S3; check it is there and do the same bookkeeping as a proxied upload
+    public void completeDirectUpload(String uploadToken, String fileKey) {
+        Notification notification = getOpenNotification(uploadToken);
+        String transactionId = notification.getTransactionId();
+        if (!fileKey.startsWith(directUploadPrefix(notification))) {
+            logger.warn("File key {} was not issued for upload token {}", fileKey, uploadToken);
+            throw new RuntimeException("Unknown file key");
+        }
+
+        CompletableFuture<Transaction> transactionLookup = CompletableFuture.supplyAsync(
+                () -> transactionRepository.getTransaction(transactionId), serviceExecutor);
+        FileDownload metadata;
+        try {
+            metadata = s3Service.getFileMetadata(fileKey);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new RuntimeException("The file has not been uploaded yet", e);
+            }
+            throw e;
+        }
+        if (metadata.contentLength() <= 0 || metadata.contentLength() > maxDirectUploadSize) {
+            s3Service.deleteFile(fileKey);
+            throw new RuntimeException("Uploaded file is empty or too large");
+        }
+
+        // Untag before completing, so a completed upload can never be expired by the lifecycle rule.
+        // The lifecycle rule no longer covers the object after that, so a failed completion deletes it.
+        s3Service.markUploadComplete(fileKey);
+        // Both were signed into the presigned PUT, so they describe the file the browser announced
+        String fileName = uploadedFileName(metadata.fileName(), transactionId);
+        String contentType = contentTypeOrDefault(metadata.contentType());
+        String clientId;
+        try {
+            Transaction transaction = await(transactionLookup);
+            clientId = transaction.getClientId();
+            uploadCompletionRepository.completeUpload(transactionId, clientId,
+                    Boolean.TRUE.equals(transaction.getSummaryCounted()), notification.getNotificationId(), fileKey,
+                    fileName, contentType);
+        } catch (RuntimeException e) {
+            discardDirectUpload(transactionId, fileKey, e);
+            throw e;
+        }
+        onFileAttached(transactionId, clientId, notification.getNotificationId(), fileKey, fileName, contentType);
+    }
+
+    private void discardDirectUpload(String transactionId, String fileKey, RuntimeException failure) {
+        try {
+            // A concurrent completion with the same key may have won, in which case the file must stay
+            if (!fileKey.equals(transactionRepository.getAttachedFileKey(transactionId))) {
+                s3Service.deleteFile(fileKey);
+            }
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            logger.error("Could not delete unattached direct upload {}: {}", fileKey, e.getMessage());
+        }
+    }
+
+    private Notification getOpenNotification(String uploadToken) {
+        Notification notification = notificationService.getNotificationByUploadToken(uploadToken);
+        if (Boolean.TRUE.equals(notification.getIsResolved())) {
+            logger.warn("Upload token {} was already used", uploadToken);
+            throw new RuntimeException("A file has already been uploaded for this request");
+        }
+        return notification;
+    }
+
+    private static String directUploadPrefix(Notification notification) {
+        return "direct/" + notification.getNotificationId() + "/";
+    }
+
+    private void onFileAttached(String transactionId, String clientId, String notificationId, String fileKey,
+            String fileName, String contentType) {
+        eventPublisher.publish(TransactionEventPublisher.DOCUMENT_UPLOADED, TransactionEvent.documentUploaded(
+                transactionId, clientId, notificationId, fileKey));
         
-        // Generate download URL for accountant
+        // Notify accountant with a download URL
         String downloadUrl = s3Service.generatePresignedDownloadUrl(
-                fileKey, 
+                fileKey,
+                fileName,
+                contentType,
                 Duration.ofHours(fileDownloadExpirationHours)
         );
-        
-        // Notify accountant
         notificationService.sendAccountantNotification(
                 accountantEmail,
                 transactionId,
@@ -130,26 +333,108 @@ public class TransactionService {
         logger.info("File attached to transaction {} and accountant notified", transactionId);
     }
 
-    public byte[] downloadTransactionFile(String transactionId) {
-        Transaction transaction = transactionRepository.getTransaction(transactionId);
-        if (transaction.getFileKey() == null) {
-            logger.error("No file found for transaction: {}", transactionId);
-            throw new RuntimeException("No file found for this transaction");
-        }
+    public FileDownload downloadTransactionFile(String transactionId, String range, boolean acceptsGzip) {
+        Transaction transaction = getTransactionWithFile(transactionId);
+        return s3Service.downloadFile(transaction.getFileKey(), range, acceptsGzip)
+                .named(documentName(transaction), documentContentType(transaction));
+    }
 
-        return s3Service.downloadFile(transaction.getFileKey());
+    public FileDownload getTransactionFileMetadata(String transactionId) {
+        Transaction transaction = getTransactionWithFile(transactionId);
+        return s3Service.getFileMetadata(transaction.getFileKey())
+                .named(documentName(transaction), documentContentType(transaction));
     }
     
     public String getFileDownloadUrl(String transactionId) {
+        Transaction transaction = getTransactionWithFile(transactionId);
+        return s3Service.generatePresignedDownloadUrl(
+                transaction.getFileKey(),
+                documentName(transaction),
+                documentContentType(transaction),
+                Duration.ofHours(fileDownloadExpirationHours)
+        );
+    }
+
+    public List<DownloadUrlResult> getFileDownloadUrls(List<String> transactionIds) {
+        if (transactionIds == null || transactionIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one transaction ID is required");
+        }
+        if (transactionIds.size() > maxDownloadUrlBatchSize) {
+            throw new IllegalArgumentException("At most " + maxDownloadUrlBatchSize + " transaction IDs per request");
+        }
+
+        List<CompletableFuture<DownloadUrlResult>> futures = transactionIds.stream()
+                .distinct()
+                .map(transactionId -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return DownloadUrlResult.success(transactionId, getFileDownloadUrl(transactionId));
+                    } catch (RuntimeException e) {
+                        return DownloadUrlResult.failure(transactionId, e.getMessage());
+                    }
+                }, serviceExecutor))
+                .collect(Collectors.toList());
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    public ClientSummaryDTO getClientSummary(String clientId) {
+        ClientSummary summary = clientSummaryRepository.getSummary(clientId);
+        return summary == null ? ClientSummaryDTO.empty(clientId) : new ClientSummaryDTO(summary);
+    }
+
+    private Transaction getTransactionWithFile(String transactionId) {
         Transaction transaction = transactionRepository.getTransaction(transactionId);
         if (transaction.getFileKey() == null) {
             logger.error("No file found for transaction: {}", transactionId);
             throw new RuntimeException("No file found for this transaction");
         }
-        
-        return s3Service.generatePresignedDownloadUrl(
-                transaction.getFileKey(),
-                Duration.ofHours(fileDownloadExpirationHours)
-        );
+        return transaction;
+    }
+
+    // Files attached before names were recorded are served under a name derived from the transaction
+    private static String documentName(Transaction transaction) {
+        return transaction.getFileName() != null ? transaction.getFileName() : transaction.getTransactionId() + "-document";
+    }
+
+    private static String documentContentType(Transaction transaction) {
+        return contentTypeOrDefault(transaction.getFileContentType());
+    }
+
+    // Browsers may send a client-side path, and the name ends up in a response header, so keep only the
+    // last path segment without control characters
+    static String uploadedFileName(String originalFileName, String transactionId) {
+        String name = originalFileName == null ? "" : originalFileName
+                .substring(Math.max(originalFileName.lastIndexOf('/'), originalFileName.lastIndexOf('\\')) + 1)
+                .replaceAll("\\p{Cntrl}", "")
+                .strip();
+        if (name.isEmpty()) {
+            return transactionId + "-document";
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(0, MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    // The type comes from the browser and is sent back as a response header, so it must at least parse
+    private static String contentTypeOrDefault(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        try {
+            return MediaType.parseMediaType(contentType).toString();
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
@@ -0,0 +1,74 @@
+package com.farhan.cloudtransaction.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Mints upload tokens of the form {@code <uuid>.<signature>}, where the signature is a truncated
+ * HMAC-SHA256 of the UUID. Every instance shares the secret, so any of them can reject a forged
+ * or mistyped token without a DynamoDB read, no matter which instance minted it.
+ */
+@Component
+public class UploadTokenSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    // Longest token we ever mint, with some room; anything longer is rejected before hashing
+    private static final int MAX_TOKEN_LENGTH = 128;
+
+    private final SecretKeySpec key;
+    private final boolean acceptUnsigned;
+
+    public UploadTokenSigner(@Value("${app.uploadToken.secret}") String secret,
+            @Value("${app.uploadToken.acceptUnsigned:false}") boolean acceptUnsigned) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.uploadToken.secret is not set; set UPLOAD_TOKEN_SECRET "
+                    + "or run with the dev profile");
+        }
+        if (secret.length() < 32) {
+            throw new IllegalStateException("app.uploadToken.secret must be at least 32 characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.acceptUnsigned = acceptUnsigned;
+    }
+
+    public String mint() {
+        String id = UUID.randomUUID().toString();
+        return id + "." + sign(id);
+    }
+
+    // Unsigned tokens are the plain UUIDs minted before signing was introduced; they are
+    // accepted (and looked up in DynamoDB) only while app.uploadToken.acceptUnsigned is on
+    public boolean isAuthentic(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dot = token.lastIndexOf('.');
+        if (dot < 0) {
+            return acceptUnsigned;
+        }
+        byte[] expected = sign(token.substring(0, dot)).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private String sign(String id) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(id.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, SIGNATURE_BYTES));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
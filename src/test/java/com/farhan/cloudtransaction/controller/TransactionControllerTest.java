@@ -0,0 +1,54 @@
+package com.farhan.cloudtransaction.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionControllerTest {
+
+    @Test
+    void passesOnlySingleByteRangesToS3() {
+        for (String range : new String[] { "bytes=0-99", "bytes=100-", "bytes=-500" }) {
+            assertTrue(TransactionController.SINGLE_BYTE_RANGE.matcher(range).matches(), range);
+        }
+        for (String range : new String[] { "bytes=0-99,200-299", "bytes=-", "bytes=a-b", "items=0-9", "bytes=0-99 " }) {
+            assertFalse(TransactionController.SINGLE_BYTE_RANGE.matcher(range).matches(), range);
+        }
+    }
+
+    @Test
+    void acceptsGzipWhenListedWithoutAZeroQuality() {
+        for (String acceptEncoding : new String[] {
+                "gzip",
+                "GZIP",
+                "gzip, deflate, br",
+                "br,gzip",
+                "deflate , gzip ;q=0.5 , br",
+                "gzip;q=1",
+                "gzip;q=1.000",
+                "gzip;q=0.001" }) {
+            assertTrue(acceptsGzip(acceptEncoding), acceptEncoding);
+        }
+    }
+
+    @Test
+    void rejectsGzipWithZeroQualityOrWhenNotListed() {
+        for (String acceptEncoding : new String[] {
+                "",
+                "identity",
+                "deflate, br",
+                "gzip;q=0",
+                "gzip;q=0.0",
+                "gzip;q=0.000, br",
+                "x-gzip",
+                "gzipped",
+                "br;q=gzip" }) {
+            assertFalse(acceptsGzip(acceptEncoding), acceptEncoding);
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return TransactionController.ACCEPTS_GZIP.matcher(acceptEncoding).find();
+    }
+}
@@ -0,0 +1,140 @@
+package com.farhan.cloudtransaction.repo;
+
+import com.farhan.cloudtransaction.entity.Notification;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRepositoryTest {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final NotificationRepository repository = new NotificationRepository(dynamoDbClient, mock(ParallelScanner.class));
+
+    @Test
+    void claimMovesLastReminderAtAndKeepsSentAt() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+        LocalDateTime lastReminderAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 4, 9, 0);
+
+        assertTrue(repository.claimReminder(notification("n-1", lastReminderAt), now, false));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        UpdateItemRequest request = captor.getValue();
+        assertEquals("SET lastReminderAt = :now ADD reminderCount :one", request.updateExpression());
+        assertFalse(request.updateExpression().contains("sentAt"));
+        assertEquals("attribute_exists(pendingShard) AND lastReminderAt = :lastReminderAt", request.conditionExpression());
+        assertEquals(TransactionRepository.timestamp(now), request.expressionAttributeValues().get(":now"));
+        assertEquals(TransactionRepository.timestamp(lastReminderAt),
+                request.expressionAttributeValues().get(":lastReminderAt"));
+    }
+
+    @Test
+    void lastReminderLeavesTheIndexAndALostClaimIsFalse() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().build())
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+        Notification notification = notification("n-1", LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        assertTrue(repository.claimReminder(notification, LocalDateTime.now(), true));
+        assertFalse(repository.claimReminder(notification, LocalDateTime.now(), true));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(2)).updateItem(captor.capture());
+        assertTrue(captor.getAllValues().get(0).updateExpression().endsWith(" REMOVE pendingShard"));
+    }
+
+    @Test
+    void spreadsNotificationsOverEveryShard() {
+        Set<String> shards = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            shards.add(Notification.pendingShard("notification-" + i));
+        }
+
+        assertEquals(Set.copyOf(Notification.pendingShards()), shards);
+        assertEquals(Notification.PENDING_SHARDS, shards.size());
+        assertEquals(Notification.pendingShard("n-1"), Notification.pendingShard("n-1"));
+    }
+
+    @Test
+    void readsOverduePagesFromEveryShardInTurn() {
+        when(dynamoDbClient.queryPaginator(any(QueryRequest.class))).thenCallRealMethod();
+        // Two pages per shard: the first continues, the second ends the shard
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            String shard = request.expressionAttributeValues().values().stream()
+                    .map(AttributeValue::s)
+                    .filter(value -> value != null && value.startsWith("PENDING#"))
+                    .findFirst()
+                    .orElseThrow();
+            boolean firstPage = !request.hasExclusiveStartKey() || request.exclusiveStartKey().isEmpty();
+            QueryResponse.Builder response = QueryResponse.builder()
+                    .items(List.of(Map.of("notificationId", AttributeValue.fromS(shard + (firstPage ? "/1" : "/2")))));
+            if (firstPage) {
+                response.lastEvaluatedKey(Map.of("notificationId", AttributeValue.fromS(shard + "/1")));
+            }
+            return response.build();
+        });
+
+        List<String> seen = new ArrayList<>();
+        repository.forEachOverduePage(LocalDateTime.now(), 10, page -> {
+            page.forEach(notification -> seen.add(notification.getNotificationId()));
+            return true;
+        });
+
+        assertEquals(2 * Notification.PENDING_SHARDS, seen.size());
+        // Every shard's first page comes before any shard's second page
+        for (int i = 0; i < Notification.PENDING_SHARDS; i++) {
+            assertTrue(seen.get(i).endsWith("/1"), seen.toString());
+        }
+    }
+
+    @Test
+    void stopsReadingWhenTheConsumerDeclines() {
+        when(dynamoDbClient.queryPaginator(any(QueryRequest.class))).thenCallRealMethod();
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(List.of(Map.of("notificationId", AttributeValue.fromS("n-1"))))
+                .build());
+
+        List<List<Notification>> pages = new ArrayList<>();
+        repository.forEachOverduePage(LocalDateTime.now(), 10, page -> {
+            pages.add(page);
+            return false;
+        });
+
+        assertEquals(1, pages.size());
+    }
+
+    private static Notification notification(String id, LocalDateTime lastReminderAt) {
+        Notification notification = new Notification();
+        notification.setNotificationId(id);
+        notification.setSentAt(lastReminderAt);
+        notification.setLastReminderAt(lastReminderAt);
+        notification.setPendingShard(Notification.pendingShard(id));
+        notification.setReminderCount(0);
+        return notification;
+    }
+}
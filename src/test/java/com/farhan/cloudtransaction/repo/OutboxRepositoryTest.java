@@ -0,0 +1,88 @@
+package com.farhan.cloudtransaction.repo;
+
+import com.farhan.cloudtransaction.entity.OutboxEmail;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRepositoryTest {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final OutboxRepository repository = new OutboxRepository(dynamoDbClient);
+
+    @Test
+    void claimsOnlyAtTheExpectedAttemptAndWithoutALiveLease() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        assertTrue(repository.claimEmail(email(3), 2, now));
+
+        PutItemRequest request = savedRequest();
+        assertEquals("attempts = :attempts AND (attribute_not_exists(leaseUntil) OR leaseUntil < :now)",
+                request.conditionExpression());
+        assertEquals("2", request.expressionAttributeValues().get(":attempts").n());
+        assertEquals(TransactionRepository.timestamp(now), request.expressionAttributeValues().get(":now"));
+        assertEquals("3", request.item().get("attempts").n());
+    }
+
+    @Test
+    void completesOnlyTheAttemptThatWasClaimed() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+
+        assertTrue(repository.completeAttempt(email(3), 3));
+
+        PutItemRequest request = savedRequest();
+        assertEquals("attempts = :attempts", request.conditionExpression());
+        assertEquals("3", request.expressionAttributeValues().get(":attempts").n());
+    }
+
+    @Test
+    void reportsALostClaimAsFalse() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+
+        assertFalse(repository.claimEmail(email(1), 0, LocalDateTime.now()));
+        assertFalse(repository.completeAttempt(email(1), 1));
+    }
+
+    @Test
+    void wrapsOtherDynamoDbErrors() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class)))
+                .thenThrow(DynamoDbException.builder().message("Throughput exceeded").build());
+
+        assertThrows(RuntimeException.class, () -> repository.completeAttempt(email(1), 1));
+    }
+
+    private PutItemRequest savedRequest() {
+        ArgumentCaptor<PutItemRequest> request = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(request.capture());
+        return request.getValue();
+    }
+
+    private static OutboxEmail email(int attempts) {
+        OutboxEmail email = new OutboxEmail();
+        email.setEmailId("email-1");
+        email.setRecipientEmail("client@example.com");
+        email.setSubject("Documents needed");
+        email.setBody("Please upload your documents");
+        email.setStatus(OutboxEmail.STATUS_PENDING);
+        email.setAttempts(attempts);
+        return email;
+    }
+}
@@ -0,0 +1,72 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsStringAndNumberKeys() {
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        key.put("clientId", AttributeValue.fromS("client-1"));
+        key.put("createdAt", AttributeValue.fromS("2024-01-02T03:04:05"));
+        key.put("transactionId", AttributeValue.fromS("5f1c/+=é"));
+        key.put("version", AttributeValue.fromN("42"));
+
+        String cursor = PageCursor.encode(key);
+
+        assertEquals(key, PageCursor.decode(cursor));
+    }
+
+    @Test
+    void encodesUrlSafely() {
+        String cursor = PageCursor.encode(Map.of("transactionId", AttributeValue.fromS("??>>~~")));
+
+        assertEquals(cursor, cursor.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void treatsMissingKeysAsNoCursor() {
+        assertNull(PageCursor.encode(null));
+        assertNull(PageCursor.encode(Map.of()));
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsUnsupportedKeyTypes() {
+        Map<String, AttributeValue> key = Map.of("isCompleted", AttributeValue.fromBool(true));
+
+        assertThrows(IllegalStateException.class, () -> PageCursor.encode(key));
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("not json"));
+        assertInvalid(encode("[\"S:x\"]"));
+        assertInvalid(encode("{}"));
+        assertInvalid(encode("null"));
+        assertInvalid(encode("{\"transactionId\":\"X:abc\"}"));
+        assertInvalid(encode("{\"transactionId\":\"abc\"}"));
+        assertInvalid(encode("{\"transactionId\":null}"));
+        assertInvalid(encode("{\"transactionId\":{\"S\":\"abc\"}}"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(cursor));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
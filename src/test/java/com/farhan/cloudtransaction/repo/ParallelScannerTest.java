@@ -0,0 +1,48 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelScannerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void spacesPagesByTheirCapacity() {
+        // 50 units at 100 units per second takes half a second
+        assertEquals(SECOND / 2, ParallelScanner.nextPageNanos(0, 0, 50, 100));
+        assertEquals(2 * SECOND, ParallelScanner.nextPageNanos(0, 0, 0.5, 0.25));
+    }
+
+    @Test
+    void queuesBehindAnEarlierPageThatIsStillBeingPaidFor() {
+        // The previous page may not be followed until 3s; the next slot is counted from there
+        assertEquals(3 * SECOND + SECOND / 10, ParallelScanner.nextPageNanos(3 * SECOND, SECOND, 10, 100));
+    }
+
+    @Test
+    void doesNotBankIdleTime() {
+        // The segment was slow and the slot is long past, so it is counted from now instead
+        assertEquals(10 * SECOND + SECOND / 10, ParallelScanner.nextPageNanos(SECOND, 10 * SECOND, 10, 100));
+    }
+
+    @Test
+    void averagesTheConfiguredRateOverManyPages() {
+        long next = 0;
+        for (int page = 0; page < 100; page++) {
+            next = ParallelScanner.nextPageNanos(next, 0, 25, 50);
+        }
+        // 2,500 units at 50 per second
+        assertEquals(50 * SECOND, next);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScanner(0, 4, 500, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScanner(4, 0, 500, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScanner(4, 4, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScanner(4, 4, 500, -1));
+    }
+}
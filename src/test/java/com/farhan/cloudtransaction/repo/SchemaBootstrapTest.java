@@ -0,0 +1,175 @@
+package com.farhan.cloudtransaction.repo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemaBootstrapTest {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // The tables as terraform/main.tf creates them
+    private final Map<String, TableDescription> tables = new HashMap<>(Map.of(
+            "Transactions", table("Transactions", "transactionId",
+                    index("clientId-createdAt-index", "clientId", "createdAt")),
+            "Notifications", table("Notifications", "notificationId",
+                    index("uploadToken-index", "uploadToken", null),
+                    index("pending-lastReminderAt-index", "pendingShard", "lastReminderAt")),
+            "EmailOutbox", table("EmailOutbox", "emailId",
+                    index("pending-nextAttemptAt-index", "pendingShard", "nextAttemptAt")),
+            "ClientSummaries", table("ClientSummaries", "clientId"),
+            "Documents", table("Documents", "contentHash"),
+            "Leases", table("Leases", "leaseName")));
+    private SchemaBootstrap bootstrap;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ClientSummaryRepository clientSummaryRepository = new ClientSummaryRepository(dynamoDbClient);
+        ParallelScanner parallelScanner = mock(ParallelScanner.class);
+        bootstrap = new SchemaBootstrap(dynamoDbClient, executor,
+                new TransactionRepository(dynamoDbClient, clientSummaryRepository, parallelScanner,
+                        new SimpleMeterRegistry(), false, 0, Duration.ZERO),
+                new NotificationRepository(dynamoDbClient, parallelScanner),
+                new OutboxRepository(dynamoDbClient),
+                clientSummaryRepository,
+                new LeaseRepository(dynamoDbClient),
+                new DocumentRepository(dynamoDbClient));
+
+        when(dynamoDbClient.describeTable(any(Consumer.class))).thenCallRealMethod();
+        when(dynamoDbClient.describeTable(any(DescribeTableRequest.class))).thenAnswer(invocation -> {
+            TableDescription table = tables.get(invocation.<DescribeTableRequest>getArgument(0).tableName());
+            if (table == null) {
+                throw ResourceNotFoundException.builder().message("Requested resource not found").build();
+            }
+            return DescribeTableResponse.builder().table(table).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void acceptsTheTerraformTablesAndIgnoresExtraIndexes() {
+        tables.put("Leases", table("Leases", "leaseName", index("owner-index", "owner", null)));
+
+        bootstrap("verify");
+    }
+
+    @Test
+    void failsWhenAnIndexIsMissing() {
+        tables.put("Notifications", table("Notifications", "notificationId",
+                index("uploadToken-index", "uploadToken", null),
+                index("pending-sentAt-index", "pendingShard", "sentAt")));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> bootstrap("verify"));
+
+        assertEquals("DynamoDB schema bootstrap failed: Notifications table does not match the application: "
+                + "index pending-lastReminderAt-index (pendingShard, lastReminderAt) is missing", e.getMessage());
+    }
+
+    @Test
+    void failsWhenAnIndexHasDifferentKeys() {
+        tables.put("EmailOutbox", table("EmailOutbox", "emailId",
+                index("pending-nextAttemptAt-index", "pendingShard", null)));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> bootstrap("verify"));
+
+        assertTrue(e.getMessage().endsWith("EmailOutbox table does not match the application: "
+                + "index pending-nextAttemptAt-index is (pendingShard), expected (pendingShard, nextAttemptAt)"),
+                e.getMessage());
+    }
+
+    @Test
+    void failsWhenTheTableKeyDiffers() {
+        tables.put("Documents", table("Documents", "documentId"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> bootstrap("create"));
+
+        assertTrue(e.getMessage().endsWith("Documents table does not match the application: "
+                + "key schema is (documentId), expected (contentHash)"), e.getMessage());
+    }
+
+    @Test
+    void createsOnlyMissingTablesInCreateMode() {
+        tables.remove("Leases");
+        when(dynamoDbClient.createTable(any(CreateTableRequest.class))).thenReturn(CreateTableResponse.builder().build());
+
+        bootstrap("create");
+
+        verify(dynamoDbClient).createTable(any(CreateTableRequest.class));
+    }
+
+    @Test
+    void failsOnAMissingTableInVerifyMode() {
+        tables.remove("Leases");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> bootstrap("verify"));
+
+        assertEquals("DynamoDB schema bootstrap failed: Leases table does not exist", e.getMessage());
+        verify(dynamoDbClient, never()).createTable(any(CreateTableRequest.class));
+    }
+
+    private void bootstrap(String mode) {
+        ReflectionTestUtils.setField(bootstrap, "mode", mode);
+        bootstrap.bootstrap();
+    }
+
+    private static TableDescription table(String name, String hashKey, GlobalSecondaryIndexDescription... indexes) {
+        TableDescription.Builder table = TableDescription.builder()
+                .tableName(name)
+                .tableStatus(TableStatus.ACTIVE)
+                .keySchema(keys(hashKey, null));
+        if (indexes.length > 0) {
+            table.globalSecondaryIndexes(indexes);
+        }
+        return table.build();
+    }
+
+    private static GlobalSecondaryIndexDescription index(String name, String hashKey, String rangeKey) {
+        return GlobalSecondaryIndexDescription.builder()
+                .indexName(name)
+                .keySchema(keys(hashKey, rangeKey))
+                .build();
+    }
+
+    private static List<KeySchemaElement> keys(String hashKey, String rangeKey) {
+        KeySchemaElement hash = KeySchemaElement.builder().attributeName(hashKey).keyType(KeyType.HASH).build();
+        if (rangeKey == null) {
+            return List.of(hash);
+        }
+        return List.of(hash, KeySchemaElement.builder().attributeName(rangeKey).keyType(KeyType.RANGE).build());
+    }
+}
@@ -0,0 +1,133 @@
+package com.farhan.cloudtransaction.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadCompletionRepositoryTest {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UploadCompletionRepository repository = new UploadCompletionRepository(dynamoDbClient,
+            transactionRepository, notificationRepository, new ClientSummaryRepository(dynamoDbClient));
+
+    @BeforeEach
+    void setUp() {
+        when(transactionRepository.tableName()).thenReturn("Transactions");
+        when(notificationRepository.tableName()).thenReturn("Notifications");
+    }
+
+    @Test
+    void commitsTransactionNotificationAndSummaryTogether() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(TransactWriteItemsResponse.builder().build());
+
+        repository.completeUpload("tx-1", "client-1", true, "n-1", "files/tx-1", "receipt.pdf", "application/pdf");
+
+        List<TransactWriteItem> items = sentRequest().transactItems();
+        assertEquals(3, items.size());
+
+        Update transaction = items.get(0).update();
+        assertEquals("Transactions", transaction.tableName());
+        assertEquals("tx-1", transaction.key().get("transactionId").s());
+        assertEquals("attribute_exists(transactionId) AND isCompleted <> :true", transaction.conditionExpression());
+        assertEquals("files/tx-1", transaction.expressionAttributeValues().get(":fileKey").s());
+        assertEquals("receipt.pdf", transaction.expressionAttributeValues().get(":fileName").s());
+        assertEquals("application/pdf", transaction.expressionAttributeValues().get(":fileContentType").s());
+
+        Update notification = items.get(1).update();
+        assertEquals("Notifications", notification.tableName());
+        assertEquals("n-1", notification.key().get("notificationId").s());
+        assertEquals("SET isResolved = :true REMOVE pendingShard", notification.updateExpression());
+        assertEquals("attribute_exists(notificationId) AND isResolved <> :true", notification.conditionExpression());
+
+        Update summary = items.get(2).update();
+        assertEquals("ClientSummaries", summary.tableName());
+        assertEquals("client-1", summary.key().get("clientId").s());
+        assertTrue(summary.updateExpression().startsWith("ADD openTransactions :minusOne, completedTransactions :one"));
+
+        verify(transactionRepository).invalidate("tx-1");
+    }
+
+    @Test
+    void countsAnUncountedTransactionOnlyIfTheBackfillHasNot() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(TransactWriteItemsResponse.builder().build());
+
+        repository.completeUpload("tx-1", "client-1", false, "n-1", "files/tx-1", "receipt.pdf", "application/pdf");
+
+        List<TransactWriteItem> items = sentRequest().transactItems();
+        assertEquals("attribute_exists(transactionId) AND isCompleted <> :true AND attribute_not_exists(summaryCounted)",
+                items.get(0).update().conditionExpression());
+        assertTrue(items.get(2).update().updateExpression().startsWith("ADD totalTransactions :one, completedTransactions :one"));
+    }
+
+    @Test
+    void explainsWhichConditionCancelledTheTransaction() {
+        assertEquals("Transaction not found: tx-1",
+                cancelledWith(failed(Map.of()), none()).getMessage());
+        assertEquals("Transaction is already completed: tx-1",
+                cancelledWith(failed(Map.of("isCompleted", AttributeValue.fromBool(true))), none()).getMessage());
+        assertEquals("A file has already been uploaded for this request",
+                cancelledWith(none(), failed(Map.of("isResolved", AttributeValue.fromBool(true)))).getMessage());
+        assertEquals("Notification not found: n-1",
+                cancelledWith(none(), failed(Map.of())).getMessage());
+    }
+
+    @Test
+    void wrapsOtherDynamoDbErrorsAndStillInvalidatesTheCache() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(DynamoDbException.builder().message("Throughput exceeded").build());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> repository.completeUpload("tx-1", "client-1", true, "n-1", "files/tx-1", "receipt.pdf", "application/pdf"));
+
+        assertEquals("Error saving transaction", e.getMessage());
+        verify(transactionRepository).invalidate("tx-1");
+    }
+
+    private RuntimeException cancelledWith(CancellationReason transactionReason, CancellationReason notificationReason) {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(TransactionCanceledException.builder()
+                        .message("Transaction cancelled")
+                        .cancellationReasons(transactionReason, notificationReason, none())
+                        .build());
+        return assertThrows(RuntimeException.class,
+                () -> repository.completeUpload("tx-1", "client-1", true, "n-1", "files/tx-1", "receipt.pdf", "application/pdf"));
+    }
+
+    private static CancellationReason failed(Map<String, AttributeValue> item) {
+        return CancellationReason.builder().code("ConditionalCheckFailed").item(item).build();
+    }
+
+    private static CancellationReason none() {
+        return CancellationReason.builder().code("None").build();
+    }
+
+    private TransactWriteItemsRequest sentRequest() {
+        ArgumentCaptor<TransactWriteItemsRequest> request = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDbClient).transactWriteItems(request.capture());
+        return request.getValue();
+    }
+}
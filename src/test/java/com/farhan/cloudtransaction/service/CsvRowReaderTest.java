@@ -0,0 +1,75 @@
+package com.farhan.cloudtransaction.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRowReaderTest {
+
+    @Test
+    void readsPlainRowsWithAnyLineEnding() throws IOException {
+        CsvRowReader reader = reader("a,b,c\r\nd,,f\ng,h,i");
+
+        assertEquals(List.of("a", "b", "c"), reader.readRow());
+        assertEquals(List.of("d", "", "f"), reader.readRow());
+        assertEquals(List.of("g", "h", "i"), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    void readsQuotedFieldsWithCommasAndDoubledQuotes() throws IOException {
+        CsvRowReader reader = reader("\"Smith, John\",\"said \"\"hi\"\"\",\"\"\n");
+
+        assertEquals(List.of("Smith, John", "said \"hi\"", ""), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotedFields() throws IOException {
+        CsvRowReader reader = reader("id,notes\r\n1,\"first line\r\nsecond line\nthird\"\r\n2,plain\r\n");
+
+        assertEquals(List.of("id", "notes"), reader.readRow());
+        assertEquals(List.of("1", "first line\r\nsecond line\nthird"), reader.readRow());
+        assertEquals(List.of("2", "plain"), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    void skipsLeadingByteOrderMark() throws IOException {
+        CsvRowReader reader = reader("\uFEFF\"clientId\",clientEmail\nc1,a@example.com\n");
+
+        assertEquals(List.of("clientId", "clientEmail"), reader.readRow());
+        assertEquals(List.of("c1", "a@example.com"), reader.readRow());
+    }
+
+    @Test
+    void keepsByteOrderMarkAfterTheStart() throws IOException {
+        CsvRowReader reader = reader("a\n\uFEFFb\n");
+
+        assertEquals(List.of("a"), reader.readRow());
+        assertEquals(List.of("\uFEFFb"), reader.readRow());
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() throws IOException {
+        CsvRowReader reader = reader("1,\"never closed\n2,x\n");
+
+        assertThrows(IOException.class, reader::readRow);
+    }
+
+    @Test
+    void returnsNullForEmptyInput() throws IOException {
+        assertNull(reader("").readRow());
+        assertNull(reader("\uFEFF").readRow());
+    }
+
+    private static CsvRowReader reader(String csv) {
+        return new CsvRowReader(new StringReader(csv));
+    }
+}
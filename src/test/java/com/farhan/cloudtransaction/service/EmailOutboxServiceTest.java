@@ -0,0 +1,168 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.OutboxEmail;
+import com.farhan.cloudtransaction.repo.OutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.MessageRejectedException;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+    private final SesClient sesClient = mock(SesClient.class);
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EmailOutboxService(sesClient, outboxRepository, meterRegistry);
+        ReflectionTestUtils.setField(service, "senderEmail", "sender@example.com");
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "maxSendRate", 1_000_000.0);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "baseBackoffMs", 1L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 5L);
+        ReflectionTestUtils.setField(service, "leaseDuration", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+        service.init();
+
+        when(outboxRepository.claimEmail(any(), anyInt(), any())).thenReturn(true);
+        when(sesClient.sendEmail(any(SendEmailRequest.class))).thenReturn(SendEmailResponse.builder().messageId("m").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void marksDeliveredEmailsSent() throws InterruptedException {
+        when(outboxRepository.completeAttempt(any(), anyInt())).thenReturn(true);
+        OutboxEmail email = pendingEmail(0);
+
+        service.deliver(email);
+
+        assertEquals(OutboxEmail.STATUS_SENT, email.getStatus());
+        assertNull(email.getPendingShard());
+        assertNull(email.getLeaseUntil());
+        verify(outboxRepository).claimEmail(eq(email), eq(0), any());
+        verify(outboxRepository).completeAttempt(email, 1);
+        assertEquals(1, count("outbox.sent"));
+    }
+
+    @Test
+    void doesNotSendWhenAnotherWorkerHoldsTheClaim() throws InterruptedException {
+        when(outboxRepository.claimEmail(any(), anyInt(), any())).thenReturn(false);
+
+        service.deliver(pendingEmail(0));
+
+        verify(sesClient, never()).sendEmail(any(SendEmailRequest.class));
+        verify(outboxRepository, never()).completeAttempt(any(), anyInt());
+    }
+
+    @Test
+    void retriesTheSentWriteWithoutSendingAgain() throws InterruptedException {
+        when(outboxRepository.completeAttempt(any(), anyInt()))
+                .thenThrow(new RuntimeException("Error updating outbox email"))
+                .thenReturn(true);
+        OutboxEmail email = pendingEmail(0);
+
+        service.deliver(email);
+
+        verify(sesClient, times(1)).sendEmail(any(SendEmailRequest.class));
+        verify(outboxRepository, times(2)).completeAttempt(email, 1);
+        assertEquals(OutboxEmail.STATUS_SENT, email.getStatus());
+        assertEquals(1, count("outbox.sent"));
+        assertEquals(0, count("outbox.retries"));
+    }
+
+    @Test
+    void neverMarksADeliveredEmailFailed() throws InterruptedException {
+        when(outboxRepository.completeAttempt(any(), anyInt())).thenThrow(new RuntimeException("Error updating outbox email"));
+        // Last attempt: a failed send here would be marked FAILED
+        OutboxEmail email = pendingEmail(2);
+
+        service.deliver(email);
+
+        verify(sesClient, times(1)).sendEmail(any(SendEmailRequest.class));
+        verify(outboxRepository, times(3)).completeAttempt(email, 3);
+        assertEquals(OutboxEmail.STATUS_SENT, email.getStatus());
+        assertEquals(0, count("outbox.failed"));
+        assertEquals(0, count("outbox.retries"));
+        assertEquals(1, count("outbox.sent.unrecorded"));
+    }
+
+    @Test
+    void schedulesARetryWhenTheSendFails() throws InterruptedException {
+        when(sesClient.sendEmail(any(SendEmailRequest.class))).thenThrow(SdkClientException.create("connection reset"));
+        when(outboxRepository.completeAttempt(any(), anyInt())).thenReturn(true);
+        OutboxEmail email = pendingEmail(0);
+
+        service.deliver(email);
+
+        assertEquals(OutboxEmail.STATUS_PENDING, email.getStatus());
+        assertEquals(OutboxEmail.PENDING, email.getPendingShard());
+        assertNull(email.getLeaseUntil());
+        assertTrue(email.getNextAttemptAt().isBefore(LocalDateTime.now().plusMinutes(1)));
+        assertEquals("connection reset", email.getLastError());
+        verify(outboxRepository).completeAttempt(email, 1);
+        assertEquals(1, count("outbox.retries"));
+    }
+
+    @Test
+    void failsRejectedMessagesPermanently() throws InterruptedException {
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+                .thenThrow(MessageRejectedException.builder().message("Email address is not verified").build());
+        when(outboxRepository.completeAttempt(any(), anyInt())).thenReturn(true);
+        OutboxEmail email = pendingEmail(0);
+
+        service.deliver(email);
+
+        assertEquals(OutboxEmail.STATUS_FAILED, email.getStatus());
+        assertNull(email.getPendingShard());
+        assertEquals(1, count("outbox.failed"));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    private static OutboxEmail pendingEmail(int attempts) {
+        OutboxEmail email = new OutboxEmail();
+        email.setEmailId("email-1");
+        email.setRecipientEmail("client@example.com");
+        email.setSubject("Documents needed");
+        email.setBody("Please upload your documents");
+        email.setStatus(OutboxEmail.STATUS_PENDING);
+        email.setPendingShard(OutboxEmail.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now());
+        email.setAttempts(attempts);
+        email.setCreatedAt(LocalDateTime.now());
+        return email;
+    }
+}
@@ -0,0 +1,157 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.entity.Notification;
+import com.farhan.cloudtransaction.repo.LeaseRepository;
+import com.farhan.cloudtransaction.repo.NotificationRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReminderSchedulerTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final LeaseRepository leaseRepository = mock(LeaseRepository.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ReminderScheduler(notificationRepository, notificationService, leaseRepository, executor, meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "overdueAfter", Duration.ofDays(3));
+        ReflectionTestUtils.setField(scheduler, "maxReminders", 3);
+        ReflectionTestUtils.setField(scheduler, "pageSize", 10);
+        ReflectionTestUtils.setField(scheduler, "parallelism", 2);
+        ReflectionTestUtils.setField(scheduler, "maxPerRun", 100);
+        ReflectionTestUtils.setField(scheduler, "leaseDuration", Duration.ofMinutes(5));
+
+        when(leaseRepository.tryAcquire(anyString(), anyString(), any())).thenReturn(true);
+        when(notificationRepository.claimReminder(any(), any(), anyBoolean())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void doesNothingWhileAnotherInstanceHoldsTheLease() {
+        when(leaseRepository.tryAcquire(anyString(), anyString(), any())).thenReturn(false);
+
+        scheduler.sendOverdueReminders();
+
+        verify(notificationRepository, never()).forEachOverduePage(any(), anyInt(), any());
+        verify(leaseRepository, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void remindsOnlyClaimedNotificationsAndReleasesTheLease() {
+        Notification claimed = notification("n-1", 0);
+        Notification taken = notification("n-2", 0);
+        when(notificationRepository.claimReminder(eq(taken), any(), anyBoolean())).thenReturn(false);
+        overduePages(List.of(claimed, taken));
+
+        scheduler.sendOverdueReminders();
+
+        verify(notificationService).sendReminder(claimed);
+        verify(notificationService, never()).sendReminder(taken);
+        verify(leaseRepository).release(eq("overdue-reminders"), anyString());
+        assertEquals(1, count("reminders.sent"));
+    }
+
+    @Test
+    void takesTheLastAllowedReminderOutOfTheIndex() {
+        Notification first = notification("n-1", 0);
+        Notification last = notification("n-2", 2);
+        overduePages(List.of(first, last));
+
+        scheduler.sendOverdueReminders();
+
+        verify(notificationRepository).claimReminder(eq(first), any(), eq(false));
+        verify(notificationRepository).claimReminder(eq(last), any(), eq(true));
+    }
+
+    @Test
+    void stopsWhenTheLeaseIsLostBetweenPages() {
+        Notification first = notification("n-1", 0);
+        Notification second = notification("n-2", 0);
+        // Acquired for the sweep, then lost at the renewal before the second page
+        when(leaseRepository.tryAcquire(anyString(), anyString(), any())).thenReturn(true, false);
+        overduePages(List.of(first), List.of(second));
+
+        scheduler.sendOverdueReminders();
+
+        verify(notificationService).sendReminder(first);
+        verify(notificationService, never()).sendReminder(second);
+        verify(leaseRepository).release(eq("overdue-reminders"), anyString());
+    }
+
+    @Test
+    void countsAFailedSendWithoutStoppingTheSweep() {
+        Notification failing = notification("n-1", 0);
+        Notification next = notification("n-2", 0);
+        doAnswer(invocation -> {
+            throw new RuntimeException("SES unavailable");
+        }).when(notificationService).sendReminder(failing);
+        overduePages(List.of(failing, next));
+
+        scheduler.sendOverdueReminders();
+
+        verify(notificationService).sendReminder(next);
+        assertEquals(1, count("reminders.failed"));
+        assertEquals(1, count("reminders.sent"));
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void overduePages(List<Notification>... pages) {
+        doAnswer(invocation -> {
+            Predicate<List<Notification>> consumer = invocation.getArgument(2);
+            for (List<Notification> page : pages) {
+                if (!consumer.test(page)) {
+                    break;
+                }
+            }
+            return null;
+        }).when(notificationRepository).forEachOverduePage(any(), anyInt(), any(Predicate.class));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    private static Notification notification(String id, int reminders) {
+        Notification notification = new Notification();
+        notification.setNotificationId(id);
+        notification.setSentAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        notification.setLastReminderAt(notification.getSentAt());
+        notification.setPendingShard(Notification.pendingShard(id));
+        notification.setReminderCount(reminders);
+        return notification;
+    }
+}
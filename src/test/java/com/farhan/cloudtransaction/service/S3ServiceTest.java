@@ -0,0 +1,166 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.dto.FileDownload;
+import com.farhan.cloudtransaction.dto.PresignedUpload;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class S3ServiceTest {
+
+    private static final String CONTENT = "abcdefghijklmnopqrstuvwxyz";
+    private static final String ETAG = "\"0123abcd\"";
+
+    @Test
+    void decodesTheWholeDocumentWithoutARange() throws IOException {
+        FileDownload download = decompressed(null);
+
+        assertEquals(CONTENT, read(download));
+        assertEquals(26, download.contentLength());
+        assertEquals(26L, download.totalLength());
+        assertFalse(download.isPartial());
+        assertNull(download.contentEncoding());
+    }
+
+    @Test
+    void servesBoundedRanges() throws IOException {
+        FileDownload download = decompressed("bytes=2-5");
+
+        assertEquals("cdef", read(download));
+        assertEquals(4, download.contentLength());
+        assertEquals("bytes 2-5/26", download.contentRange());
+    }
+
+    @Test
+    void servesOpenEndedRanges() throws IOException {
+        FileDownload download = decompressed("bytes=20-");
+
+        assertEquals("uvwxyz", read(download));
+        assertEquals("bytes 20-25/26", download.contentRange());
+    }
+
+    @Test
+    void servesSuffixRanges() throws IOException {
+        assertEquals("xyz", read(decompressed("bytes=-3")));
+        // A suffix longer than the document is the whole document
+        FileDownload download = decompressed("bytes=-100");
+        assertEquals(CONTENT, read(download));
+        assertEquals("bytes 0-25/26", download.contentRange());
+    }
+
+    @Test
+    void clampsRangesThatRunPastTheEnd() throws IOException {
+        FileDownload download = decompressed("bytes=24-1000");
+
+        assertEquals("yz", read(download));
+        assertEquals("bytes 24-25/26", download.contentRange());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        for (String range : new String[] { "bytes=26-", "bytes=100-200", "bytes=5-4", "bytes=-0" }) {
+            RangeNotSatisfiableException e = assertThrows(RangeNotSatisfiableException.class, () -> decompressed(range));
+            assertEquals(26, e.getTotalLength());
+        }
+    }
+
+    @Test
+    void tagsTheDecodedVariantSeparately() throws IOException {
+        assertEquals("\"0123abcd-decoded\"", decompressed(null).eTag());
+        assertEquals("\"0123abcd-decoded\"", decompressed("bytes=0-0").eTag());
+        assertEquals("W/\"0123abcd-decoded\"", S3Service.decodedETag("W/\"0123abcd\""));
+        assertEquals("0123abcd-decoded", S3Service.decodedETag("0123abcd"));
+        assertNull(S3Service.decodedETag(null));
+    }
+
+    @Test
+    void presignsDownloadsWithTheDocumentsNameAndType() {
+        S3Service service = presigningService();
+
+        String url = service.generatePresignedDownloadUrl("sha256/abc", "March receipt.pdf", "application/pdf", Duration.ofHours(24));
+
+        assertTrue(url.contains("response-content-type=application%2Fpdf"), url);
+        assertTrue(url.contains("response-content-disposition=attachment%3B%20filename%3D%22March%20receipt.pdf%22"), url);
+        // The same shared object under another name gets its own URL; the same name reuses the cached one
+        assertEquals(url, service.generatePresignedDownloadUrl("sha256/abc", "March receipt.pdf", "application/pdf", Duration.ofHours(24)));
+        assertNotEquals(url, service.generatePresignedDownloadUrl("sha256/abc", "copy.pdf", "application/pdf", Duration.ofHours(24)));
+    }
+
+    @Test
+    void signsTheOriginalFileNameIntoDirectUploads() {
+        PresignedUpload upload = presigningService().generatePresignedUploadUrl(
+                "direct/n-1/key", "reçu mars.pdf", "application/pdf", 1024, Duration.ofMinutes(15));
+
+        assertEquals("re%C3%A7u+mars.pdf", upload.headers().get("x-amz-meta-filename"));
+    }
+
+    @Test
+    void quotesAsciiNamesAndEncodesOthers() {
+        assertEquals("attachment; filename=\"receipt.pdf\"", S3Service.attachment("receipt.pdf"));
+        assertEquals("attachment; filename=\"say \\\"hi\\\".txt\"", S3Service.attachment("say \"hi\".txt"));
+        assertTrue(S3Service.attachment("reçu.pdf").contains("filename*=UTF-8''re%C3%A7u.pdf"), S3Service.attachment("reçu.pdf"));
+    }
+
+    private static S3Service presigningService() {
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKIDEXAMPLE", "secret")))
+                .build();
+        S3Service service = new S3Service(mock(S3Client.class), presigner);
+        ReflectionTestUtils.setField(service, "bucketName", "documents");
+        ReflectionTestUtils.setField(service, "partSize", 8 * 1024 * 1024);
+        ReflectionTestUtils.setField(service, "maxPartBuffers", 1);
+        ReflectionTestUtils.setField(service, "presignSafetyMargin", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "presignMaxReuse", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "presignCacheSize", 100L);
+        service.init();
+        return service;
+    }
+
+    private static FileDownload decompressed(String range) throws IOException {
+        GetObjectResponse response = GetObjectResponse.builder()
+                .eTag(ETAG)
+                .metadata(Map.of(
+                        S3Service.CODEC_METADATA, S3Service.GZIP,
+                        S3Service.ORIGINAL_LENGTH_METADATA, String.valueOf(CONTENT.length())))
+                .build();
+        return S3Service.decompressed(new ByteArrayInputStream(gzip(CONTENT)), response, range);
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String read(FileDownload download) throws IOException {
+        try (InputStream in = download.content()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
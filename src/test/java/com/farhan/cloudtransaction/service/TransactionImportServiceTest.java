@@ -0,0 +1,156 @@
+package com.farhan.cloudtransaction.service;
+
+import com.farhan.cloudtransaction.dto.ImportReport;
+import com.farhan.cloudtransaction.dto.ImportRowResult;
+import com.farhan.cloudtransaction.entity.Transaction;
+import com.farhan.cloudtransaction.repo.ClientSummaryRepository;
+import com.farhan.cloudtransaction.repo.TransactionRepository;
+
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionImportServiceTest {
+
+    private static final String HEADER = "clientId,clientEmail,description\n";
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final ClientSummaryRepository clientSummaryRepository = mock(ClientSummaryRepository.class);
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final TransactionEventPublisher eventPublisher = mock(TransactionEventPublisher.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<Validator> validatorProvider = mock(ObjectProvider.class);
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private TransactionImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TransactionImportService(transactionRepository, clientSummaryRepository, transactionService,
+                eventPublisher, validatorProvider);
+        ReflectionTestUtils.setField(service, "maxInFlightBatches", 2);
+        ReflectionTestUtils.setField(service, "workers", 2);
+        service.init();
+
+        // newTransaction only builds the entity
+        when(transactionService.newTransaction(any())).thenCallRealMethod();
+        when(transactionRepository.saveTransactions(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            // Slow enough that batches are still in flight when the reader finishes
+            Thread.sleep(50);
+            return List.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void writesRowsInBatchesOfTwentyFive() {
+        ImportReport report = service.importTransactions(csv(HEADER + rows(2, 61)));
+
+        assertEquals(60, report.totalRows());
+        assertEquals(60, report.imported());
+        assertEquals(List.of(25, 25, 10), batchSizes.stream().sorted(Collections.reverseOrder()).toList());
+        verify(clientSummaryRepository, times(3)).recordCreated(eq("client"), anyLong());
+        assertEquals(2, report.rows().get(0).row());
+        assertEquals(61, report.rows().get(59).row());
+    }
+
+    @Test
+    void reportsInvalidAndThrottledRows() {
+        when(transactionRepository.saveTransactions(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            return List.of(batch.get(0));
+        });
+
+        ImportReport report = service.importTransactions(csv(HEADER
+                + "c1,a@example.com,first\n"
+                + ",b@example.com,no client\n"
+                + "\n"
+                + "c3,c@example.com,third\n"));
+
+        assertEquals(3, report.totalRows());
+        assertEquals(1, report.imported());
+        assertEquals("Client ID cannot be blank", report.rows().get(1).error());
+        assertEquals(3, report.rows().get(1).row());
+        assertTrue(report.rows().get(0).error().contains("throttled"));
+        assertEquals(5, report.rows().get(2).row());
+    }
+
+    @Test
+    void returnsThePartialReportWhenTheUploadBreaksOff() {
+        InputStream broken = new SequenceInputStream(csv(HEADER + rows(2, 31) + "c,d@example.com,\"unterminated"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+
+        ImportReport report = service.importTransactions(broken);
+
+        // The first full batch and the five valid rows after it are all written before the report is built
+        assertEquals(30, report.imported());
+        assertEquals(List.of(25, 5), batchSizes.stream().sorted(Collections.reverseOrder()).toList());
+        ImportRowResult last = report.rows().get(report.rows().size() - 1);
+        assertEquals(32, last.row());
+        assertTrue(last.error().contains("Connection reset"));
+    }
+
+    @Test
+    void reportsRowsThatCouldNotBeSubmitted() {
+        service.shutdown();
+
+        ImportReport report = service.importTransactions(csv(HEADER + rows(2, 30)));
+
+        assertEquals(0, report.imported());
+        assertEquals(25, report.failed());
+        verify(transactionRepository, never()).saveTransactions(anyList());
+    }
+
+    @Test
+    void rejectsFilesWithoutAUsableHeader() {
+        assertThrows(IllegalArgumentException.class, () -> service.importTransactions(csv("")));
+        assertThrows(IllegalArgumentException.class, () -> service.importTransactions(csv("clientId,description\nc,d\n")));
+    }
+
+    private static String rows(int first, int last) {
+        StringBuilder csv = new StringBuilder();
+        for (int row = first; row <= last; row++) {
+            csv.append("client,client").append(row).append("@example.com,Row ").append(row).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
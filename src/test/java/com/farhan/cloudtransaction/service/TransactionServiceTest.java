@@ -0,0 +1,25 @@
+package com.farhan.cloudtransaction.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionServiceTest {
+
+    @Test
+    void keepsTheUploadedFileNameWithoutClientPaths() {
+        assertEquals("receipt.pdf", TransactionService.uploadedFileName("receipt.pdf", "tx-1"));
+        assertEquals("reçu mars.pdf", TransactionService.uploadedFileName("reçu mars.pdf", "tx-1"));
+        assertEquals("receipt.pdf", TransactionService.uploadedFileName("C:\\Users\\me\\receipt.pdf", "tx-1"));
+        assertEquals("receipt.pdf", TransactionService.uploadedFileName("/home/me/receipt.pdf", "tx-1"));
+        assertEquals("receipt.pdf", TransactionService.uploadedFileName("rece\r\nipt.pdf", "tx-1"));
+        assertEquals(255, TransactionService.uploadedFileName("a".repeat(300), "tx-1").length());
+    }
+
+    @Test
+    void namesUnnamedUploadsAfterTheTransaction() {
+        assertEquals("tx-1-document", TransactionService.uploadedFileName(null, "tx-1"));
+        assertEquals("tx-1-document", TransactionService.uploadedFileName("  ", "tx-1"));
+        assertEquals("tx-1-document", TransactionService.uploadedFileName("folder/", "tx-1"));
+    }
+}
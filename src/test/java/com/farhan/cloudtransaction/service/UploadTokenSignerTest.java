@@ -0,0 +1,76 @@
+package com.farhan.cloudtransaction.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadTokenSignerTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final UploadTokenSigner signer = new UploadTokenSigner(SECRET, false);
+
+    @Test
+    void acceptsTokensItMinted() {
+        String token = signer.mint();
+
+        assertTrue(signer.isAuthentic(token));
+        assertTrue(new UploadTokenSigner(SECRET, false).isAuthentic(token));
+        assertNotEquals(token, signer.mint());
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = signer.mint();
+        int dot = token.lastIndexOf('.');
+        String id = token.substring(0, dot);
+        String signature = token.substring(dot + 1);
+
+        assertFalse(signer.isAuthentic(UUID.randomUUID() + "." + signature));
+        assertFalse(signer.isAuthentic(id + "." + flipFirst(signature)));
+        assertFalse(signer.isAuthentic(id + "." + signature.substring(1)));
+        assertFalse(signer.isAuthentic(id + "."));
+        assertFalse(signer.isAuthentic(token + "x"));
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherSecret() {
+        UploadTokenSigner other = new UploadTokenSigner("another-secret-that-is-long-enough", false);
+
+        assertFalse(signer.isAuthentic(other.mint()));
+    }
+
+    @Test
+    void acceptsUnsignedTokensOnlyWhenConfigured() {
+        String legacy = UUID.randomUUID().toString();
+
+        assertFalse(signer.isAuthentic(legacy));
+        assertTrue(new UploadTokenSigner(SECRET, true).isAuthentic(legacy));
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedTokens() {
+        UploadTokenSigner lenient = new UploadTokenSigner(SECRET, true);
+
+        assertFalse(lenient.isAuthentic(null));
+        assertFalse(lenient.isAuthentic(""));
+        assertFalse(lenient.isAuthentic("x".repeat(129)));
+    }
+
+    @Test
+    void requiresALongSecret() {
+        assertThrows(IllegalStateException.class, () -> new UploadTokenSigner("too-short", true));
+        assertThrows(IllegalStateException.class, () -> new UploadTokenSigner(null, true));
+        assertThrows(IllegalStateException.class, () -> new UploadTokenSigner("", true));
+    }
+
+    private static String flipFirst(String signature) {
+        char first = signature.charAt(0);
+        return (first == 'A' ? 'B' : 'A') + signature.substring(1);
+    }
+}
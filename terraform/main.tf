@@ -28,6 +28,52 @@ resource "aws_s3_bucket_public_access_block" "transaction_files_access" {
   restrict_public_buckets = true
 }
 
+# Clean up parts left behind by interrupted multipart uploads
+resource "aws_s3_bucket_lifecycle_configuration" "transaction_files_lifecycle" {
+  bucket = aws_s3_bucket.transaction_files.id
+
+  rule {
+    id     = "abort-incomplete-multipart-uploads"
+    status = "Enabled"
+
+    filter {}
+
+    abort_incomplete_multipart_upload {
+      days_after_initiation = 1
+    }
+  }
+
+  # Direct browser uploads are tagged until the completion endpoint accepts them
+  rule {
+    id     = "expire-abandoned-direct-uploads"
+    status = "Enabled"
+
+    filter {
+      tag {
+        key   = "upload"
+        value = "pending"
+      }
+    }
+
+    expiration {
+      days = 1
+    }
+  }
+}
+
+# Browsers PUT documents straight to the bucket with presigned URLs
+resource "aws_s3_bucket_cors_configuration" "transaction_files_cors" {
+  bucket = aws_s3_bucket.transaction_files.id
+
+  cors_rule {
+    allowed_methods = ["PUT"]
+    # Only the upload form's origin (app.baseUrl) may PUT directly to the bucket
+    allowed_origins = ["http://${aws_instance.app_instance.public_ip}:8080"]
+    allowed_headers = ["content-type", "x-amz-tagging", "x-amz-meta-filename"]
+    max_age_seconds = 3000
+  }
+}
+
 # DynamoDB Table for transactions
 resource "aws_dynamodb_table" "transactions" {
   name         = "Transactions"
@@ -38,6 +84,24 @@ resource "aws_dynamodb_table" "transactions" {
     name = "transactionId"
     type = "S"
   }
+
+  attribute {
+    name = "clientId"
+    type = "S"
+  }
+
+  attribute {
+    name = "createdAt"
+    type = "S"
+  }
+
+  # Per-client lookups, newest first
+  global_secondary_index {
+    name            = "clientId-createdAt-index"
+    hash_key        = "clientId"
+    range_key       = "createdAt"
+    projection_type = "ALL"
+  }
 }
 
 # DynamoDB Table for notifications
@@ -50,6 +114,108 @@ resource "aws_dynamodb_table" "notifications" {
     name = "notificationId"
     type = "S"
   }
+
+  attribute {
+    name = "uploadToken"
+    type = "S"
+  }
+
+  attribute {
+    name = "pendingShard"
+    type = "S"
+  }
+
+  attribute {
+    name = "lastReminderAt"
+    type = "S"
+  }
+
+  # Direct lookup of a notification by its upload link token
+  global_secondary_index {
+    name            = "uploadToken-index"
+    hash_key        = "uploadToken"
+    projection_type = "ALL"
+  }
+
+  # Sparse index of unresolved notifications by last request or reminder time, used by the overdue
+  # reminder sweep. pendingShard spreads them over several partitions (PENDING#0..PENDING#7).
+  global_secondary_index {
+    name            = "pending-lastReminderAt-index"
+    hash_key        = "pendingShard"
+    range_key       = "lastReminderAt"
+    projection_type = "ALL"
+  }
+}
+
+# DynamoDB Table for the email outbox (emails waiting to be sent through SES)
+resource "aws_dynamodb_table" "email_outbox" {
+  name         = "EmailOutbox"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "emailId"
+
+  attribute {
+    name = "emailId"
+    type = "S"
+  }
+
+  attribute {
+    name = "pendingShard"
+    type = "S"
+  }
+
+  attribute {
+    name = "nextAttemptAt"
+    type = "S"
+  }
+
+  # Sparse index: only emails that still need sending carry pendingShard
+  global_secondary_index {
+    name            = "pending-nextAttemptAt-index"
+    hash_key        = "pendingShard"
+    range_key       = "nextAttemptAt"
+    projection_type = "ALL"
+  }
+}
+
+# Per-client open/completed counters, maintained by the application with ADD updates
+resource "aws_dynamodb_table" "client_summaries" {
+  name         = "ClientSummaries"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "clientId"
+
+  attribute {
+    name = "clientId"
+    type = "S"
+  }
+}
+
+# Reference counts for content-addressed document objects in S3
+resource "aws_dynamodb_table" "documents" {
+  name         = "Documents"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "contentHash"
+
+  attribute {
+    name = "contentHash"
+    type = "S"
+  }
+}
+
+# Leases so that background jobs run on one instance at a time
+resource "aws_dynamodb_table" "leases" {
+  name         = "Leases"
+  billing_mode = "PAY_PER_REQUEST"
+  hash_key     = "leaseName"
+
+  attribute {
+    name = "leaseName"
+    type = "S"
+  }
+}
+
+# Event bus for transaction lifecycle events (TransactionCreated, NotificationSent, DocumentUploaded)
+resource "aws_cloudwatch_event_bus" "transaction_events" {
+  name = "transaction-events"
 }
 
 # SES Email Identity for sender
@@ -138,7 +304,10 @@ resource "aws_iam_policy" "app_policy" {
           "s3:PutObject",
           "s3:GetObject",
           "s3:DeleteObject",
-          "s3:ListBucket"
+          "s3:ListBucket",
+          "s3:AbortMultipartUpload",
+          "s3:PutObjectTagging",
+          "s3:DeleteObjectTagging"
         ],
         Resource = [
           aws_s3_bucket.transaction_files.arn,
@@ -149,25 +318,40 @@ resource "aws_iam_policy" "app_policy" {
         Effect = "Allow",
         Action = [
           "dynamodb:PutItem",
+          "dynamodb:BatchWriteItem",
           "dynamodb:GetItem",
           "dynamodb:UpdateItem",
           "dynamodb:DeleteItem",
           "dynamodb:Scan",
           "dynamodb:Query",
-          "dynamodb:CreateTable"
+          "dynamodb:CreateTable",
+          "dynamodb:DescribeTable"
         ],
         Resource = [
           aws_dynamodb_table.transactions.arn,
-          aws_dynamodb_table.notifications.arn
+          "${aws_dynamodb_table.transactions.arn}/index/*",
+          aws_dynamodb_table.notifications.arn,
+          "${aws_dynamodb_table.notifications.arn}/index/*",
+          aws_dynamodb_table.email_outbox.arn,
+          "${aws_dynamodb_table.email_outbox.arn}/index/*",
+          aws_dynamodb_table.client_summaries.arn,
+          aws_dynamodb_table.leases.arn,
+          aws_dynamodb_table.documents.arn
         ]
       },
       {
         Effect = "Allow",
         Action = [
           "ses:SendEmail",
-          "ses:SendRawEmail"
+          "ses:SendRawEmail",
+          "ses:GetSendQuota"
         ],
         Resource = "*"
+      },
+      {
+        Effect   = "Allow",
+        Action   = "events:PutEvents",
+        Resource = aws_cloudwatch_event_bus.transaction_events.arn
       }
     ]
   })
@@ -185,6 +369,12 @@ resource "aws_iam_instance_profile" "app_profile" {
   role = aws_iam_role.app_role.name
 }
 
+# Shared secret for signing upload tokens, so every instance accepts links minted by the others
+resource "random_password" "upload_token_secret" {
+  length  = 48
+  special = false
+}
+
 # EC2 Instance
 resource "aws_instance" "app_instance" {
   ami                    = var.ami_id
@@ -196,7 +386,7 @@ resource "aws_instance" "app_instance" {
   user_data = <<-EOF
               #!/bin/bash
               sudo yum update -y
-              sudo amazon-linux-extras install java-openjdk17 -y
+              sudo yum install -y java-21-amazon-corretto-devel
               sudo yum install -y git maven
               
               # Create application.properties
@@ -210,11 +400,16 @@ resource "aws_instance" "app_instance" {
               aws.region=${var.aws_region}
               aws.s3.bucketName=${var.s3_bucket_name}
               aws.ses.senderEmail=${var.sender_email}
+              app.events.busName=${aws_cloudwatch_event_bus.transaction_events.name}
 
               # Application Configuration
               app.baseUrl=http://${self.public_ip}:8080
               app.fileDownloadExpiration=24
               accountant.email=${var.accountant_email}
+              app.uploadToken.secret=${random_password.upload_token_secret.result}
+
+              # Terraform manages the DynamoDB tables, so startup only checks that they exist
+              app.dynamodb.schemaBootstrap=verify
 
               # Logging Configuration
               logging.level.root=INFO
@@ -222,8 +417,8 @@ resource "aws_instance" "app_instance" {
               logging.pattern.console=%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n
 
               # Multipart File Upload Configuration
-              spring.servlet.multipart.max-file-size=10MB
-              spring.servlet.multipart.max-request-size=10MB
+              spring.servlet.multipart.max-file-size=100MB
+              spring.servlet.multipart.max-request-size=100MB
 
               # Thymeleaf Configuration
               spring.thymeleaf.cache=false
@@ -268,7 +463,7 @@ output "next_steps" {
     
     3. Build and run the application:
        mvn clean package
-       java -jar target/cloudtransaction-0.0.1-SNAPSHOT.jar
+       java -jar target/cloudtransaction-0.0.1-SNAPSHOT-exec.jar
     
     4. Access your application at:
        http://${aws_instance.app_instance.public_ip}:8080